@@ -1,3 +1,6 @@
+-- Schema of version 1 of the migrations (src/main/resources/db/migration), with its demo data.
+-- The application takes it as version 1 on startup (spring.flyway.baseline-on-migrate) and applies the next ones.
+
 -- Créer la base de données de test
 DROP DATABASE IF EXISTS pay_my_buddy_test;
 CREATE DATABASE pay_my_buddy_test;
@@ -0,0 +1,77 @@
+package com.payMyBuddy.aspect;
+
+import com.payMyBuddy.config.AccountLockingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// runs outside of the transaction advice so that every attempt gets its own transaction
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ConflictRetryAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConflictRetryAspect.class);
+
+    private final AccountLockingProperties lockingProperties;
+    private final MeterRegistry meterRegistry;
+
+    public ConflictRetryAspect(AccountLockingProperties lockingProperties, MeterRegistry meterRegistry) {
+        this.lockingProperties = lockingProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Metrics : conflict rate = account.update.conflicts / account.update.calls
+
+    @Around("@annotation(com.payMyBuddy.aspect.RetryOnConflict)")
+    public Object retryOnConflict(ProceedingJoinPoint joinPoint) throws Throwable {
+
+        // a caller's transaction cannot be replayed from here, it is up to the caller to retry
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        AccountLockingProperties.Retry retry = lockingProperties.getRetry();
+        Tags tags = Tags.of(
+            "operation", joinPoint.getSignature().getName(),
+            "strategy", lockingProperties.getStrategy().name().toLowerCase()
+        );
+        meterRegistry.counter("account.update.calls", tags).increment();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (ConcurrencyFailureException ex) {
+                meterRegistry.counter("account.update.conflicts", tags).increment();
+
+                if (attempt >= retry.getMaxAttempts()) {
+                    meterRegistry.counter("account.update.exhausted", tags).increment();
+                    logger.warn("Conflit non résolu sur {}() après {} tentatives",
+                        joinPoint.getSignature().getName(), attempt);
+                    throw ex;
+                }
+
+                meterRegistry.counter("account.update.retries", tags).increment();
+                Thread.sleep(backoffMillis(retry, attempt));
+            }
+        }
+    }
+
+    private long backoffMillis(AccountLockingProperties.Retry retry, int attempt) {
+        double exponential = retry.getInitialBackoff().toMillis() * Math.pow(retry.getMultiplier(), attempt - 1);
+        long delay = (long) Math.min(exponential, retry.getMaxBackoff().toMillis());
+        long jitter = (long) (delay * retry.getJitter() * ThreadLocalRandom.current().nextDouble());
+        return delay - jitter;
+    }
+}
@@ -0,0 +1,112 @@
+package com.payMyBuddy.aspect;
+
+import com.payMyBuddy.config.InstrumentationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Records the latency of the controller and service methods into the method.timed histograms.
+// Arguments and results are never rendered : an entity's toString can walk, and lazy load, its whole graph.
+@Aspect
+@Component
+@ConditionalOnProperty(prefix = "paymybuddy.instrumentation", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class MethodTimingAspect {
+
+    private static final String METRIC = "method.timed";
+
+    private final InstrumentationProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    // one probe per intercepted method, built on its first call
+    private final Map<Method, Probe> probes = new ConcurrentHashMap<>();
+
+    public MethodTimingAspect(InstrumentationProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Pointcut("within(com.payMyBuddy.controller..*)")
+    public void controllerMethods() {}
+
+    @Pointcut("within(com.payMyBuddy.service..*)")
+    public void serviceMethods() {}
+
+    @Pointcut("controllerMethods() || serviceMethods()")
+    public void applicationPackagePointcut() {}
+
+    @Around("applicationPackagePointcut()")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+
+        if (!sampled()) {
+            return joinPoint.proceed();
+        }
+
+        Probe probe = probes.computeIfAbsent(((MethodSignature) joinPoint.getSignature()).getMethod(), this::probe);
+
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            probe.success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable ex) {
+            probe.failure(ex).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            probe.logger.error("🚨 [EXCEPTION] {}() | {} : {}", probe.method, ex.getClass().getSimpleName(), ex.getMessage());
+            throw ex;
+        }
+    }
+
+    private boolean sampled() {
+        double sampleRate = properties.getSampleRate();
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private Probe probe(Method method) {
+        return new Probe(method.getDeclaringClass(), method.getName(), meterRegistry);
+    }
+
+    private static final class Probe {
+
+        private final String className;
+        private final String method;
+        private final Logger logger;
+        private final MeterRegistry meterRegistry;
+
+        private final Timer success;
+        private final Map<Class<?>, Timer> failures = new ConcurrentHashMap<>();
+
+        private Probe(Class<?> declaringClass, String method, MeterRegistry meterRegistry) {
+            this.className = declaringClass.getSimpleName();
+            this.method = method;
+            this.logger = LoggerFactory.getLogger(declaringClass);
+            this.meterRegistry = meterRegistry;
+            this.success = timer("none");
+        }
+
+        private Timer failure(Throwable ex) {
+            return failures.computeIfAbsent(ex.getClass(), type -> timer(type.getSimpleName()));
+        }
+
+        private Timer timer(String exception) {
+            return Timer.builder(METRIC)
+                .tag("class", className)
+                .tag("method", method)
+                .tag("exception", exception)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.payMyBuddy.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Concurrency control applied to account balance updates (transfers and deposits).
+ */
+@Component
+@ConfigurationProperties(prefix = "paymybuddy.locking")
+@Getter @Setter
+public class AccountLockingProperties {
+
+    /**
+     * The way concurrent balance updates are serialized.
+     */
+    public enum Strategy {
+        /** Rows are read with SELECT ... FOR UPDATE, writers wait for each other. */
+        PESSIMISTIC,
+        /** Rows are read without lock, the @Version column detects conflicts which are then retried. */
+        OPTIMISTIC
+    }
+
+    private Strategy strategy = Strategy.OPTIMISTIC;
+
+    private Retry retry = new Retry();
+
+    /**
+     * Retry policy applied when a balance update loses a race (version conflict, deadlock or lock timeout).
+     */
+    @Getter @Setter
+    public static class Retry {
+
+        // total number of attempts, the first one included
+        private int maxAttempts = 5;
+
+        private Duration initialBackoff = Duration.ofMillis(10);
+
+        private Duration maxBackoff = Duration.ofMillis(200);
+
+        private double multiplier = 2.0;
+
+        // share of the backoff randomly removed, 0 for none, 1 for full jitter
+        private double jitter = 0.5;
+    }
+}
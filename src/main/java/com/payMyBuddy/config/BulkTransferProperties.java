@@ -0,0 +1,18 @@
+package com.payMyBuddy.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limits of the bulk transfer endpoint (POST /transactions/bulk).
+ */
+@Component
+@ConfigurationProperties(prefix = "paymybuddy.transactions.bulk")
+@Getter @Setter
+public class BulkTransferProperties {
+
+    // transfers accepted per request : all their accounts are loaded, and locked when pessimistic, in one transaction
+    private int maxSize = 100;
+}
@@ -0,0 +1,28 @@
+package com.payMyBuddy.config;
+
+import com.payMyBuddy.security.CustomUserDetailsService;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.cache.NullUserCache;
+import org.springframework.security.core.userdetails.cache.SpringCacheBasedUserCache;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * User cache of the authentication principals, backed by the {@link CustomUserDetailsService#USER_DETAILS_CACHE} cache.
+     *
+     * @param cacheManager the cache manager
+     * @return the user cache
+     */
+    @Bean
+    public UserCache userCache(CacheManager cacheManager) {
+        Cache cache = cacheManager.getCache(CustomUserDetailsService.USER_DETAILS_CACHE);
+        return cache != null ? new SpringCacheBasedUserCache(cache) : new NullUserCache();
+    }
+}
@@ -0,0 +1,35 @@
+package com.payMyBuddy.config;
+
+import com.payMyBuddy.datasource.ConnectionPoolWarmUp;
+import com.payMyBuddy.datasource.HikariPoolSizer;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties(ConnectionPoolProperties.class)
+public class ConnectionPoolConfig {
+
+    private static final String PREFIX = "paymybuddy.datasource.pool";
+
+    // static, and bound straight from the environment : post-processors are created before the other beans,
+    // the properties bean included
+    @Bean
+    public static HikariPoolSizer hikariPoolSizer(Environment environment) {
+        return new HikariPoolSizer(
+            Binder.get(environment).bindOrCreate(PREFIX, ConnectionPoolProperties.class).getSizing()
+        );
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = PREFIX + ".warm-up", name = "enabled", havingValue = "true")
+    public ConnectionPoolWarmUp connectionPoolWarmUp(Map<String, HikariDataSource> pools, ConnectionPoolProperties properties) {
+        return new ConnectionPoolWarmUp(pools, properties.getWarmUp().getTimeout());
+    }
+}
@@ -0,0 +1,57 @@
+package com.payMyBuddy.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Size of the Hikari pool and its warm-up at startup.
+ */
+@ConfigurationProperties(prefix = "paymybuddy.datasource.pool")
+@Getter @Setter
+public class ConnectionPoolProperties {
+
+    private Sizing sizing = new Sizing();
+
+    private WarmUp warmUp = new WarmUp();
+
+    /**
+     * Fixed pool size derived from what the database can serve, rather than from the number of request threads :
+     * (cores * 2) + effective spindles, capped by the share of max_connections of this instance.
+     */
+    @Getter @Setter
+    public static class Sizing {
+
+        // off : spring.datasource.hikari.* or the Hikari defaults apply
+        private boolean enabled = false;
+
+        // cores of the database server, a statement only progresses while it has one or waits on the disk
+        private int databaseCores = 4;
+
+        // disks the working set does not fit in, 0 when it is all in the buffer pool
+        private int effectiveSpindles = 1;
+
+        // max_connections of the server, shared by every instance of the application
+        private int databaseMaxConnections = 151;
+
+        // connections left to the administration, the migrations and the other clients
+        private int reservedConnections = 10;
+
+        // instances of the application running against the same database
+        private int instances = 1;
+    }
+
+    /**
+     * Opens the connections of the pool before the web server accepts requests.
+     */
+    @Getter @Setter
+    public static class WarmUp {
+
+        private boolean enabled = false;
+
+        // beyond that the startup goes on, the pool filling itself in the background
+        private Duration timeout = Duration.ofSeconds(30);
+    }
+}
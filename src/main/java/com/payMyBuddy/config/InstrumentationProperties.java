@@ -0,0 +1,20 @@
+package com.payMyBuddy.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Timing of the controller and service methods.
+ */
+@Component
+@ConfigurationProperties(prefix = "paymybuddy.instrumentation")
+@Getter @Setter
+public class InstrumentationProperties {
+
+    private boolean enabled = true;
+
+    // share of the calls timed, between 0 and 1 : the timer counts are sampled as well, not the call counts
+    private double sampleRate = 1.0;
+}
@@ -0,0 +1,49 @@
+package com.payMyBuddy.config;
+
+import com.payMyBuddy.security.BCryptCostCalibrator;
+import com.payMyBuddy.security.BoundedPasswordEncoder;
+import com.payMyBuddy.security.TargetCostBCryptPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties(PasswordHashingProperties.class)
+public class PasswordHashingConfig {
+
+    private static final String BCRYPT = "bcrypt";
+
+    // the only encoder of the application : signup, password change and form login all hash on its pool.
+    // New hashes are stored as {bcrypt}..., the older ones without prefix are still matched as bcrypt,
+    // and both are re-encoded at the configured cost on the next successful login (see CustomUserDetailsService)
+    @Bean
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties properties, MeterRegistry meterRegistry) {
+
+        PasswordHashingProperties.Calibration calibration = properties.getCalibration();
+        int strength = calibration.isEnabled()
+            ? BCryptCostCalibrator.calibrate(calibration.getTargetLatency(), calibration.getMinStrength(), calibration.getMaxStrength())
+            : properties.getStrength();
+
+        PasswordHashingProperties.Pool pool = properties.getPool();
+        int threads = pool.getThreads() > 0
+            ? pool.getThreads()
+            : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        TargetCostBCryptPasswordEncoder bcrypt = new TargetCostBCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT, Map.of(BCRYPT, bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        return new BoundedPasswordEncoder(
+            delegating,
+            threads,
+            pool.getQueueCapacity(),
+            pool.getTimeout(),
+            meterRegistry
+        );
+    }
+}
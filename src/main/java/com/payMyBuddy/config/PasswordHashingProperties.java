@@ -0,0 +1,54 @@
+package com.payMyBuddy.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * BCrypt cost and the dedicated pool the hashes run on (signup, password change and form login).
+ */
+@ConfigurationProperties(prefix = "paymybuddy.password")
+@Getter @Setter
+public class PasswordHashingProperties {
+
+    // BCrypt log rounds, used as is unless the calibration is enabled
+    private int strength = 10;
+
+    private Calibration calibration = new Calibration();
+
+    private Pool pool = new Pool();
+
+    /**
+     * Picks the cost at startup from the time a hash takes on the host.
+     */
+    @Getter @Setter
+    public static class Calibration {
+
+        private boolean enabled = false;
+
+        // highest cost whose hash stays under this latency is kept
+        private Duration targetLatency = Duration.ofMillis(250);
+
+        private int minStrength = 10;
+
+        private int maxStrength = 14;
+    }
+
+    /**
+     * Bounded pool the hashes run on, so that a burst of signups or logins cannot take every core.
+     */
+    @Getter @Setter
+    public static class Pool {
+
+        // 0 for half of the available processors
+        private int threads = 0;
+
+        // hashes waiting for a thread, beyond that they are rejected
+        private int queueCapacity = 64;
+
+        // time a caller waits for its hash, queueing included
+        private Duration timeout = Duration.ofSeconds(5);
+    }
+}
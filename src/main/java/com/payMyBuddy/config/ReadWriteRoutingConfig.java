@@ -0,0 +1,74 @@
+package com.payMyBuddy.config;
+
+import com.payMyBuddy.datasource.ReadWriteRoutingDataSource;
+import com.payMyBuddy.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Primary and replica pools behind a routing datasource, in place of the single pool of the auto-configuration.
+ * Flyway, Hibernate and the JdbcTemplate all get the routing one, which only sends read-only transactions
+ * to the replica.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "paymybuddy.datasource.replica", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class ReadWriteRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("paymybuddy.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(ReplicaDataSourceProperties properties) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .url(properties.getUrl())
+            .username(properties.getUsername())
+            .password(properties.getPassword())
+            .build();
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+        @Qualifier("primaryDataSource") DataSource primary,
+        @Qualifier("replicaDataSource") DataSource replica,
+        ReplicaDataSourceProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        return new ReplicaLagMonitor(primary, replica, properties.getMaxLag(), properties.getHeartbeatInterval(), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+        @Qualifier("primaryDataSource") DataSource primary,
+        @Qualifier("replicaDataSource") DataSource replica,
+        ReplicaLagMonitor replicaLagMonitor,
+        MeterRegistry meterRegistry
+    ) {
+        // lazy : the connection is fetched at the first statement, once the transaction is flagged read-only or not
+        return new LazyConnectionDataSourceProxy(
+            new ReadWriteRoutingDataSource(primary, replica, replicaLagMonitor, meterRegistry)
+        );
+    }
+}
@@ -0,0 +1,30 @@
+package com.payMyBuddy.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Read replica serving the read-only transactions, its pool being configured under paymybuddy.datasource.replica.hikari.*
+ */
+@ConfigurationProperties(prefix = "paymybuddy.datasource.replica")
+@Getter @Setter
+public class ReplicaDataSourceProperties {
+
+    // off : a single datasource, every transaction on the primary
+    private boolean enabled = false;
+
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    // beyond that lag the reads go back to the primary, until the replica catches up
+    private Duration maxLag = Duration.ofSeconds(2);
+
+    // how often the heartbeat is written on the primary and read back on the replica
+    private Duration heartbeatInterval = Duration.ofSeconds(1);
+}
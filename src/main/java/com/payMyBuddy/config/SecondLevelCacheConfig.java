@@ -0,0 +1,21 @@
+package com.payMyBuddy.config;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.HibernateMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SecondLevelCacheConfig {
+
+    // hibernate.second.level.cache.requests{region, result=hit|miss}, only when hibernate.generate_statistics is on
+    @Bean
+    public MeterBinder hibernateCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> new HibernateMetrics(
+            entityManagerFactory.unwrap(SessionFactory.class), "entityManagerFactory", Tags.empty()
+        ).bindTo(registry);
+    }
+}
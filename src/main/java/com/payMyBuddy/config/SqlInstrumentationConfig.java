@@ -0,0 +1,28 @@
+package com.payMyBuddy.config;
+
+import com.payMyBuddy.metrics.SqlStatementsFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(SqlInstrumentationProperties.class)
+@ConditionalOnProperty(prefix = "paymybuddy.sql", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlInstrumentationConfig {
+
+    // ahead of the security filters, whose user lookup is part of the request
+    @Bean
+    public FilterRegistrationBean<SqlStatementsFilter> sqlStatementsFilter(
+        SqlInstrumentationProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        FilterRegistrationBean<SqlStatementsFilter> registration =
+            new FilterRegistrationBean<>(new SqlStatementsFilter(properties, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,29 @@
+package com.payMyBuddy.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Statements and JDBC time of each HTTP request.
+ */
+@ConfigurationProperties(prefix = "paymybuddy.sql")
+@Getter @Setter
+public class SqlInstrumentationProperties {
+
+    private boolean enabled = true;
+
+    // statements a request may run before it is logged
+    private int statementBudget = 20;
+
+    // execution time of a single statement beyond which the request is logged
+    private Duration slowQueryThreshold = Duration.ofMillis(200);
+
+    // X-Sql-Statements and X-Sql-Time headers, set when the response is committed
+    private boolean responseHeaders = true;
+
+    // test mode : a request over budget fails instead of being logged
+    private boolean failOnBudgetExceeded = false;
+}
@@ -0,0 +1,35 @@
+package com.payMyBuddy.config;
+
+import com.payMyBuddy.event.TransferCompletedHandler;
+import com.payMyBuddy.event.TransferEventDispatcher;
+import com.payMyBuddy.service.TransferOutboxService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(TransferEventProperties.class)
+public class TransferEventConfig {
+
+    // every TransferCompletedHandler bean of the context gets the committed transfers, closed with the context
+    // once the events already queued are delivered
+    @Bean
+    public TransferEventDispatcher transferEventDispatcher(
+        List<TransferCompletedHandler> handlers,
+        TransferOutboxService transferOutboxService,
+        TransferEventProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        return new TransferEventDispatcher(
+            handlers,
+            transferOutboxService,
+            properties.getQueueCapacity(),
+            properties.getBatchSize(),
+            properties.getMaxBatchDelay(),
+            meterRegistry
+        );
+    }
+}
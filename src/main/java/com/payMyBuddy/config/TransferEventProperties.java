@@ -0,0 +1,56 @@
+package com.payMyBuddy.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Delivery of the TransferCompletedEvent : right after commit on a bounded queue, and from the outbox for what
+ * the queue did not deliver.
+ */
+@ConfigurationProperties(prefix = "paymybuddy.events.transfer")
+@Getter @Setter
+public class TransferEventProperties {
+
+    // events waiting for the delivery thread, beyond that they are left to the outbox poller
+    private int queueCapacity = 10000;
+
+    // events handed to the handlers at once
+    private int batchSize = 100;
+
+    // how long a batch waits to fill up once it holds an event
+    private Duration maxBatchDelay = Duration.ofMillis(100);
+
+    private Outbox outbox = new Outbox();
+
+    /**
+     * Poller of the outbox entries the queue did not deliver.
+     */
+    @Getter @Setter
+    public static class Outbox {
+
+        // delay between two polls, see @Scheduled of TransferOutboxPoller
+        private Duration pollInterval = Duration.ofSeconds(5);
+
+        // age of an entry before the poller takes it, the queue being still on it until then
+        private Duration grace = Duration.ofSeconds(30);
+
+        // entries locked and delivered per database transaction
+        private int batchSize = 500;
+
+        // published entries are kept that long, then purged
+        private Duration retention = Duration.ofDays(7);
+
+        // failed deliveries of an entry alone before it is dead-lettered, the first one included
+        private int maxAttempts = 10;
+
+        // delay before the next attempt of a failed entry, multiplied after each failure up to max-backoff
+        private Duration initialBackoff = Duration.ofSeconds(30);
+
+        private Duration maxBackoff = Duration.ofHours(1);
+
+        private double multiplier = 2.0;
+    }
+}
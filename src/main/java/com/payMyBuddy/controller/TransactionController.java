@@ -1,7 +1,9 @@
 package com.payMyBuddy.controller;
 
+import com.payMyBuddy.config.BulkTransferProperties;
 import com.payMyBuddy.dto.transaction.TransactionCreateDTO;
-import com.payMyBuddy.dto.transaction.TransactionResponseDTO;
+import com.payMyBuddy.dto.transaction.TransactionPageResponseDTO;
+import com.payMyBuddy.dto.transaction.TransactionResultDTO;
 import com.payMyBuddy.dto.account.ReceiversAccountsResponseDTO;
 import com.payMyBuddy.dto.user.UserResponseDTO;
 import com.payMyBuddy.security.SecurityUtils;
@@ -10,12 +12,19 @@ import com.payMyBuddy.service.UserService;
 import com.payMyBuddy.service.AccountService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.List;
@@ -26,43 +35,61 @@ import java.util.List;
 @Controller
 public class TransactionController {
 
+    private static final Logger logger = LoggerFactory.getLogger(TransactionController.class);
+
     private final UserService userService;
     private final TransactionService transactionService;
     private final AccountService accountService;
     private final SecurityUtils securityUtils;
+    private final BulkTransferProperties bulkTransferProperties;
 
     /**
      * Instantiates a new Transaction controller.
      *
-     * @param userService        the user service
-     * @param transactionService the transaction service
-     * @param accountService     the account service
-     * @param securityUtils      the security utils
+     * @param userService            the user service
+     * @param transactionService     the transaction service
+     * @param accountService         the account service
+     * @param securityUtils          the security utils
+     * @param bulkTransferProperties the bulk transfer properties
      */
-    public TransactionController(UserService userService, TransactionService transactionService, AccountService accountService, SecurityUtils securityUtils) {
+    public TransactionController(
+        UserService userService,
+        TransactionService transactionService,
+        AccountService accountService,
+        SecurityUtils securityUtils,
+        BulkTransferProperties bulkTransferProperties
+    ) {
         this.userService = userService;
         this.transactionService = transactionService;
         this.accountService = accountService;
         this.securityUtils = securityUtils;
+        this.bulkTransferProperties = bulkTransferProperties;
     }
 
     /**
      * Show transactions.
      *
-     * @param model the model
+     * @param cursor the cursor of the page to display, absent for the most recent page
+     * @param model  the model
      * @return the string
      */
     @GetMapping("/transactions")
-    public String showTransactions(Model model) {
+    public String showTransactions(
+        @RequestParam(value = "cursor", required = false) String cursor,
+        Model model
+    ) {
         Integer userId = securityUtils.getCurrentUserId();
 
         UserResponseDTO user = userService.findByUserId(userId);
-        List<TransactionResponseDTO> transactions = transactionService.findTransactionsForCurrentUser(userId, 0);
+        TransactionPageResponseDTO page = transactionService.findTransactionsPageForCurrentUser(
+            userId, cursor, TransactionService.DEFAULT_PAGE_SIZE
+        );
         List<ReceiversAccountsResponseDTO> receiversAccounts = accountService.findAccountsForCurrentUserAndHisContacts(userId);
 
         model.addAttribute("transactionCreate", new TransactionCreateDTO());
         model.addAttribute("receiversAccounts", receiversAccounts);
-        model.addAttribute("transactions", transactions);
+        model.addAttribute("transactions", page.getTransactions());
+        model.addAttribute("nextCursor", page.getNextCursor());
         model.addAttribute("user", user);
         return "transactions";
     }
@@ -88,12 +115,15 @@ public class TransactionController {
             Integer userId = securityUtils.getCurrentUserId();
 
             UserResponseDTO user = userService.findByUserId(userId);
-            List<TransactionResponseDTO> transactions = transactionService.findTransactionsForCurrentUser(userId, 0);
+            TransactionPageResponseDTO page = transactionService.findTransactionsPageForCurrentUser(
+                userId, null, TransactionService.DEFAULT_PAGE_SIZE
+            );
             List<ReceiversAccountsResponseDTO> receiversAccounts = accountService.findAccountsForCurrentUserAndHisContacts(userId);
             
             model.addAttribute("transactionCreate", transaction);
             model.addAttribute("receiversAccounts", receiversAccounts);
-            model.addAttribute("transactions", transactions);
+            model.addAttribute("transactions", page.getTransactions());
+            model.addAttribute("nextCursor", page.getNextCursor());
             model.addAttribute("user", user);
             return "transactions";
         }
@@ -102,4 +132,32 @@ public class TransactionController {
         redirectAttributes.addFlashAttribute("successMessage", "Transaction effectuée avec succès !");
         return "redirect:/transactions";
     }
+
+    /**
+     * Create a batch of transactions, debiting the accounts of the current user only.
+     *
+     * @param transactions the transactions
+     * @return the result of each transaction, in the submitted order, or a 400 beyond the maximum batch size
+     * or when an element of the batch is null
+     */
+    @PostMapping(
+        value = "/transactions/bulk",
+        consumes = MediaType.APPLICATION_JSON_VALUE,
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @ResponseBody
+    public ResponseEntity<List<TransactionResultDTO>> createTransactions(@RequestBody List<TransactionCreateDTO> transactions) {
+
+        if (transactions.size() > bulkTransferProperties.getMaxSize()) {
+            logger.warn("Lot de {} virements refusé, au-delà du maximum de {}",
+                transactions.size(), bulkTransferProperties.getMaxSize());
+            return ResponseEntity.badRequest().build();
+        }
+        if (transactions.contains(null)) {
+            logger.warn("Lot de {} virements refusé, un virement est vide", transactions.size());
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(transactionService.createTransactions(securityUtils.getCurrentUserId(), transactions));
+    }
 }
@@ -0,0 +1,70 @@
+package com.payMyBuddy.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Opens the minimum idle connections of every Hikari pool once the context is built, before the web server
+ * starts : the first requests after a deploy find them ready instead of paying the TCP, TLS and authentication
+ * round trips of each one.
+ */
+public class ConnectionPoolWarmUp implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPoolWarmUp.class);
+
+    private final Map<String, HikariDataSource> pools;
+    private final Duration timeout;
+
+    /**
+     * Instantiates a new Connection pool warm up.
+     *
+     * @param pools   the pools, by bean name
+     * @param timeout the time given to all the pools
+     */
+    public ConnectionPoolWarmUp(Map<String, HikariDataSource> pools, Duration timeout) {
+        this.pools = pools;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        pools.forEach((name, pool) -> warmUp(name, pool, deadline));
+    }
+
+    private void warmUp(String name, HikariDataSource pool, long deadline) {
+        long start = System.nanoTime();
+        List<Connection> connections = new ArrayList<>();
+
+        // held together, so that the pool has to open a new one for each borrow instead of handing back the same
+        try {
+            while (connections.size() < pool.getMinimumIdle() && System.nanoTime() < deadline) {
+                Connection connection = pool.getConnection();
+                connections.add(connection);
+                connection.isValid((int) Math.max(1, Duration.ofNanos(deadline - System.nanoTime()).toSeconds()));
+            }
+        } catch (SQLException e) {
+            logger.warn("Préchauffage du pool {} interrompu : {}", name, e.getMessage());
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    logger.warn("Connexion du pool {} non rendue : {}", name, e.getMessage());
+                }
+            }
+        }
+
+        logger.info("Pool {} préchauffé : {} connexions sur {} en {} ms",
+            name, connections.size(), pool.getMinimumIdle(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+}
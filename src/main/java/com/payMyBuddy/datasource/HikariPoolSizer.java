@@ -0,0 +1,53 @@
+package com.payMyBuddy.datasource;
+
+import com.payMyBuddy.config.ConnectionPoolProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Sizes every Hikari pool of the context from the capacity of the database, once spring.datasource.hikari.*
+ * is bound and before the pool opens its first connection.
+ */
+public class HikariPoolSizer implements BeanPostProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(HikariPoolSizer.class);
+
+    private final ConnectionPoolProperties.Sizing sizing;
+
+    /**
+     * Instantiates a new Hikari pool sizer.
+     *
+     * @param sizing the sizing
+     */
+    public HikariPoolSizer(ConnectionPoolProperties.Sizing sizing) {
+        this.sizing = sizing;
+    }
+
+    /**
+     * Compute the pool size : (cores * 2) + effective spindles, capped by the connections the server
+     * can give to each instance.
+     *
+     * @param sizing the sizing
+     * @return the pool size, at least 1
+     */
+    public static int poolSize(ConnectionPoolProperties.Sizing sizing) {
+        int throughput = sizing.getDatabaseCores() * 2 + sizing.getEffectiveSpindles();
+        int capacity = (sizing.getDatabaseMaxConnections() - sizing.getReservedConnections()) / Math.max(1, sizing.getInstances());
+        return Math.max(1, Math.min(throughput, capacity));
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource && sizing.isEnabled()) {
+            int size = poolSize(sizing);
+
+            // fixed size : no connection opened under load, nor closed when the load drops
+            dataSource.setMaximumPoolSize(size);
+            dataSource.setMinimumIdle(size);
+            logger.info("Pool {} dimensionné à {} connexions", beanName, size);
+        }
+        return bean;
+    }
+}
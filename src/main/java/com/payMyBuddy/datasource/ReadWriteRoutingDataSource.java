@@ -0,0 +1,128 @@
+package com.payMyBuddy.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Sends the connections of the read-only transactions to the replica, everything else to the primary.
+ * <p>
+ * The read-only flag of the transaction is only known once it has begun : this datasource must sit behind
+ * a LazyConnectionDataSourceProxy, which fetches the connection at the first statement.
+ * A read-only transaction joining a read-write one stays on the primary and reads its own writes.
+ * <p>
+ * Read-your-writes across requests : the commit of a read-write transaction within an HTTP request stamps the
+ * session, whose reads then stay on the primary for the staleness the replica may have. A user reloading the page
+ * after a transfer sees it, while the other sessions keep reading the replica.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * The target of a connection.
+     */
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    /**
+     * Session attribute holding the instant of the last read-write transaction the session committed.
+     */
+    public static final String LAST_WRITE_ATTRIBUTE = ReadWriteRoutingDataSource.class.getName() + ".LAST_WRITE";
+
+    private final DataSource primary;
+    private final ReplicaLagMonitor lagMonitor;
+
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+    private final Counter fallbackConnections;
+
+    /**
+     * Instantiates a new Read write routing data source.
+     *
+     * @param primary       the primary
+     * @param replica       the replica
+     * @param lagMonitor    the lag monitor
+     * @param meterRegistry the meter registry
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                      MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.lagMonitor = lagMonitor;
+
+        this.primaryConnections = meterRegistry.counter("datasource.routing.connections", "route", "primary");
+        this.replicaConnections = meterRegistry.counter("datasource.routing.connections", "route", "replica");
+        this.fallbackConnections = meterRegistry.counter("datasource.routing.connections", "route", "fallback");
+
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+            && lagMonitor.isReplicaUsable()
+            && !sessionWroteWithinStaleness()
+            ? Route.REPLICA
+            : Route.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target == primary) {
+            primaryConnections.increment();
+            stampSessionOnCommit();
+            return primary.getConnection();
+        }
+
+        try {
+            Connection connection = target.getConnection();
+            replicaConnections.increment();
+            return connection;
+        } catch (SQLException e) {
+            // down since the last check : this read and the next ones go to the primary until it answers again
+            lagMonitor.replicaFailed(e);
+            fallbackConnections.increment();
+            return primary.getConnection();
+        }
+    }
+
+    private boolean sessionWroteWithinStaleness() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) {
+            return false;
+        }
+        Object lastWrite = request.getAttribute(LAST_WRITE_ATTRIBUTE, RequestAttributes.SCOPE_SESSION);
+        return lastWrite instanceof Instant instant
+            && Instant.now().isBefore(instant.plus(lagMonitor.getMaxStaleness()));
+    }
+
+    // stamped once committed, the replica only starts lagging behind the write from there
+    private void stampSessionOnCommit() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null
+            || TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+            || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                request.setAttribute(LAST_WRITE_ATTRIBUTE, Instant.now(), RequestAttributes.SCOPE_SESSION);
+            }
+        });
+    }
+}
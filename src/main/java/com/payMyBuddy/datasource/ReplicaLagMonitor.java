@@ -0,0 +1,136 @@
+package com.payMyBuddy.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lag of the replica from the heartbeat of the replication_heartbeat table : stamped on the primary
+ * with its own clock, read back on the replica, the difference is how far behind the replica is.
+ * Works whatever the replication technology, and without the REPLICATION CLIENT privilege.
+ * <p>
+ * The replica is usable while its lag stays within the tolerance and it answers, the read-only transactions
+ * go to the primary otherwise.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String STAMP = "UPDATE pay_my_buddy.replication_heartbeat SET beat = CURRENT_TIMESTAMP(6) WHERE id = 1";
+    private static final String READ = "SELECT beat FROM pay_my_buddy.replication_heartbeat WHERE id = 1";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final Duration maxLag;
+    private final Duration heartbeatInterval;
+
+    private volatile Duration lag;
+    private volatile boolean replicaUsable;
+
+    /**
+     * Instantiates a new Replica lag monitor. The replica is not used before the first check.
+     *
+     * @param primary           the primary
+     * @param replica           the replica
+     * @param maxLag            the max lag
+     * @param heartbeatInterval the heartbeat interval
+     * @param meterRegistry     the meter registry
+     */
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, Duration maxLag, Duration heartbeatInterval,
+                             MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLag = maxLag;
+        this.heartbeatInterval = heartbeatInterval;
+
+        TimeGauge.builder("datasource.replica.lag", this, TimeUnit.MILLISECONDS,
+                monitor -> monitor.lag == null ? Double.NaN : monitor.lag.toMillis())
+            .description("Retard de la réplique sur le primaire, mesuré par le battement de cœur")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Stamp the heartbeat on the primary and measure the lag of the replica.
+     */
+    @Scheduled(fixedDelayString = "${paymybuddy.datasource.replica.heartbeat-interval}")
+    public void check() {
+        Timestamp beat;
+        try {
+            primary.update(STAMP);
+            beat = primary.queryForObject(READ, Timestamp.class);
+        } catch (DataAccessException e) {
+            // nothing to compare with : the replica keeps its last state, its lag grows with the missing beats
+            logger.warn("Battement de cœur non écrit sur le primaire : {}", e.getMessage());
+            return;
+        }
+
+        Timestamp replicated;
+        try {
+            replicated = replica.queryForObject(READ, Timestamp.class);
+        } catch (DataAccessException e) {
+            lag = null;
+            update(false, "réplique injoignable : " + e.getMessage());
+            return;
+        }
+
+        lag = Duration.between(replicated.toInstant(), beat.toInstant());
+        update(lag.compareTo(maxLag) <= 0, "retard de " + lag.toMillis() + " ms");
+    }
+
+    /**
+     * Take the replica out until the next check, after a connection it refused.
+     *
+     * @param cause the cause
+     */
+    public void replicaFailed(Exception cause) {
+        update(false, "connexion refusée : " + cause.getMessage());
+    }
+
+    /**
+     * Is replica usable.
+     *
+     * @return true while the replica answers within the tolerated lag
+     */
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    /**
+     * Gets the last measured lag.
+     *
+     * @return the lag, null while unknown
+     */
+    public Duration getLag() {
+        return lag;
+    }
+
+    /**
+     * Gets the staleness a read of the replica may have : the tolerated lag, plus the heartbeat interval during
+     * which the lag went unmeasured.
+     *
+     * @return the staleness
+     */
+    public Duration getMaxStaleness() {
+        return maxLag.plus(heartbeatInterval);
+    }
+
+    private void update(boolean usable, String reason) {
+        if (usable != replicaUsable) {
+            if (usable) {
+                logger.info("Lectures envoyées à la réplique : {}", reason);
+            } else {
+                logger.warn("Lectures renvoyées au primaire : {}", reason);
+            }
+        }
+        replicaUsable = usable;
+    }
+}
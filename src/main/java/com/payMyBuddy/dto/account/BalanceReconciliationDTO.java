@@ -0,0 +1,22 @@
+package com.payMyBuddy.dto.account;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Setter @Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class BalanceReconciliationDTO {
+
+    private Integer accountId;
+
+    private BigDecimal accountBalance;
+
+    // last snapshot plus the ledger entries applied since
+    private BigDecimal ledgerBalance;
+
+    private boolean consistent;
+
+}
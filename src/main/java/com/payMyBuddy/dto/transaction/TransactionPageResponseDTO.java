@@ -0,0 +1,21 @@
+package com.payMyBuddy.dto.transaction;
+
+import lombok.*;
+
+import java.util.List;
+
+@Setter @Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class TransactionPageResponseDTO {
+
+    private List<TransactionResponseDTO> transactions;
+
+    // cursor of the next (older) page, null when this is the last page
+    private String nextCursor;
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
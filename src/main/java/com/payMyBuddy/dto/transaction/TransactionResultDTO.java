@@ -0,0 +1,20 @@
+package com.payMyBuddy.dto.transaction;
+
+import lombok.*;
+
+@Setter @Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class TransactionResultDTO {
+
+    // position of the transfer in the submitted batch
+    private int index;
+
+    private boolean success;
+
+    private Integer transactionId;
+
+    private String message;
+
+}
@@ -0,0 +1,54 @@
+package com.payMyBuddy.event;
+
+import com.payMyBuddy.model.TransactionType;
+import com.payMyBuddy.model.TransferOutboxEntry;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * A transfer whose database transaction committed, published once by the transaction that created it and again
+ * by the outbox poller if it was not delivered in time : handlers must tolerate a repeated event (same outbox id).
+ *
+ * @param outboxId          the id of its outbox entry
+ * @param transactionId     the transaction id
+ * @param senderAccountId   the sender account id
+ * @param senderUserId      the sender user id
+ * @param receiverAccountId the receiver account id
+ * @param receiverUserId    the receiver user id
+ * @param amount            the amount
+ * @param type              the type
+ * @param createdAt         the creation instant of the transfer
+ */
+public record TransferCompletedEvent(
+    Long outboxId,
+    Integer transactionId,
+    Integer senderAccountId,
+    Integer senderUserId,
+    Integer receiverAccountId,
+    Integer receiverUserId,
+    BigDecimal amount,
+    TransactionType type,
+    Instant createdAt
+) {
+
+    /**
+     * Build the event of an outbox entry.
+     *
+     * @param entry the entry
+     * @return the transfer completed event
+     */
+    public static TransferCompletedEvent of(TransferOutboxEntry entry) {
+        return new TransferCompletedEvent(
+            entry.getId(),
+            entry.getTransactionId(),
+            entry.getSenderAccountId(),
+            entry.getSenderUserId(),
+            entry.getReceiverAccountId(),
+            entry.getReceiverUserId(),
+            entry.getAmount(),
+            entry.getType(),
+            entry.getCreatedAt()
+        );
+    }
+}
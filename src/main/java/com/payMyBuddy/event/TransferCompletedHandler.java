@@ -0,0 +1,18 @@
+package com.payMyBuddy.event;
+
+import java.util.List;
+
+/**
+ * A consumer of the committed transfers : notifications, analytics, cache invalidation.
+ * Called off the request thread, with batches of events, at least once per event.
+ */
+public interface TransferCompletedHandler {
+
+    /**
+     * Handle a batch of committed transfers. An exception leaves the whole batch to the outbox poller,
+     * the other handlers included, which delivers its events again one by one.
+     *
+     * @param events the events, oldest first
+     */
+    void onTransfersCompleted(List<TransferCompletedEvent> events);
+}
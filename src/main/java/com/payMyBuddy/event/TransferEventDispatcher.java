@@ -0,0 +1,182 @@
+package com.payMyBuddy.event;
+
+import com.payMyBuddy.service.TransferOutboxService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers the TransferCompletedEvent to the handlers once the transfer has committed, in batches,
+ * on a single thread of its own : the request only pays for putting the event in a bounded queue.
+ * <p>
+ * When the queue is full, a handler fails or the application stops before the delivery, the event is left
+ * to the outbox poller, which delivers it again from its outbox entry.
+ */
+public class TransferEventDispatcher implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferEventDispatcher.class);
+
+    private final List<TransferCompletedHandler> handlers;
+    private final TransferOutboxService transferOutboxService;
+    private final BlockingQueue<TransferCompletedEvent> queue;
+    private final int batchSize;
+    private final Duration maxBatchDelay;
+    private final ExecutorService executor;
+
+    private final Counter dropped;
+    private final Counter failures;
+    private final DistributionSummary batchSizes;
+    private final Timer delay;
+
+    private volatile boolean running = true;
+
+    /**
+     * Instantiates a new Transfer event dispatcher, and starts its delivery thread.
+     *
+     * @param handlers              the handlers
+     * @param transferOutboxService the transfer outbox service
+     * @param queueCapacity         the number of events allowed to wait for the delivery thread
+     * @param batchSize             the maximum number of events per batch
+     * @param maxBatchDelay         how long a batch waits to fill up
+     * @param meterRegistry         the meter registry
+     */
+    public TransferEventDispatcher(
+        List<TransferCompletedHandler> handlers,
+        TransferOutboxService transferOutboxService,
+        int queueCapacity,
+        int batchSize,
+        Duration maxBatchDelay,
+        MeterRegistry meterRegistry
+    ) {
+        this.handlers = handlers;
+        this.transferOutboxService = transferOutboxService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxBatchDelay = maxBatchDelay;
+
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+            1, 1,
+            0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "transfer-events");
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "transfer.events");
+
+        Gauge.builder("transfer.events.queued", queue, BlockingQueue::size).register(meterRegistry);
+        this.dropped = meterRegistry.counter("transfer.events.dropped");
+        this.failures = meterRegistry.counter("transfer.events.failures");
+        this.batchSizes = DistributionSummary.builder("transfer.events.batch.size").register(meterRegistry);
+        this.delay = Timer.builder("transfer.events.delay")
+            .description("Délai entre le virement et la livraison de son événement")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+
+        executor.execute(this::deliverQueued);
+    }
+
+    /**
+     * Queue a committed transfer for the delivery thread, without waiting.
+     *
+     * @param event the event
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTransferCompleted(TransferCompletedEvent event) {
+        if (!running || !queue.offer(event)) {
+            // its outbox entry is still pending : the poller delivers it once the grace period is over
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Hand a batch of events to every handler.
+     *
+     * @param events the events
+     * @return true if every handler took them, false if one of them failed
+     */
+    public boolean deliver(List<TransferCompletedEvent> events) {
+        for (TransferCompletedHandler handler : handlers) {
+            try {
+                handler.onTransfersCompleted(events);
+            } catch (RuntimeException ex) {
+                failures.increment();
+                logger.warn("Événements de virement non livrés à {}, repris par l'outbox : {}",
+                    handler.getClass().getSimpleName(), ex.getMessage());
+                return false;
+            }
+        }
+
+        batchSizes.record(events.size());
+        Instant now = Instant.now();
+        events.forEach(event -> delay.record(Duration.between(event.createdAt(), now)));
+        return true;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        executor.shutdown();
+        executor.awaitTermination(maxBatchDelay.toMillis() + 5000, TimeUnit.MILLISECONDS);
+    }
+
+    // the loop of the delivery thread : a batch starts with the first event and closes when full or after maxBatchDelay
+    private void deliverQueued() {
+        List<TransferCompletedEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                TransferCompletedEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + maxBatchDelay.toNanos();
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    TransferCompletedEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                if (deliver(batch)) {
+                    transferOutboxService.markPublished(batch.stream().map(TransferCompletedEvent::outboxId).toList());
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                // the database is out of reach : the entries stay pending, the poller delivers them again
+                logger.warn("Publication des événements de virement non enregistrée : {}", ex.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.payMyBuddy.event;
+
+import com.payMyBuddy.model.TransactionType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Tells the receiver of a transfer from another user that the money arrived. The channel is the application log
+ * for now : a mail or push sender plugs in here, off the request thread and once per transfer.
+ */
+@Component
+public class TransferNotificationHandler implements TransferCompletedHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferNotificationHandler.class);
+
+    private final Counter notifications;
+
+    /**
+     * Instantiates a new Transfer notification handler.
+     *
+     * @param meterRegistry the meter registry
+     */
+    public TransferNotificationHandler(MeterRegistry meterRegistry) {
+        this.notifications = meterRegistry.counter("transfers.notifications");
+    }
+
+    @Override
+    public void onTransfersCompleted(List<TransferCompletedEvent> events) {
+        for (TransferCompletedEvent event : events) {
+            // the transfers between the accounts of a same user are his own doing, nothing to tell him
+            if (event.type() == TransactionType.BENEFICIARY_TRANSFER) {
+                logger.info("Notification à l'utilisateur {} : virement {} de {} € reçu sur le compte {}",
+                    event.receiverUserId(), event.transactionId(), event.amount(), event.receiverAccountId());
+                notifications.increment();
+            }
+        }
+    }
+}
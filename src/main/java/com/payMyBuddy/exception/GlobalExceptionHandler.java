@@ -1,5 +1,6 @@
 package com.payMyBuddy.exception;
 
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -111,6 +112,30 @@ public class GlobalExceptionHandler {
         return "redirect:/profile";
     }
 
+    /**
+     * Handle password hashing rejected exception string.
+     *
+     * @param ex                 the ex
+     * @param request            the request
+     * @param redirectAttributes the redirect attributes
+     * @return the string
+     */
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public String handlePasswordHashingRejectedException(
+            PasswordHashingRejectedException ex,
+            HttpServletRequest request,
+            RedirectAttributes redirectAttributes
+    ) {
+        logger.warn(ex.getMessage());
+        redirectAttributes.addFlashAttribute("errorMessage", ex.getMessage());
+
+        if ("/processSignup".equals(request.getServletPath())) {
+            return "redirect:/signup";
+        }
+
+        return "redirect:/profile";
+    }
+
     /**
      * Handle resource not found exception string.
      *
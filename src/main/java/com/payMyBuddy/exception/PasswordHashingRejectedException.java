@@ -0,0 +1,10 @@
+package com.payMyBuddy.exception;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+// an AuthenticationException so that a rejected login ends on the login failure page
+public class PasswordHashingRejectedException extends AuthenticationServiceException {
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
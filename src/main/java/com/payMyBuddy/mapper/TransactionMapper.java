@@ -24,6 +24,8 @@ public interface TransactionMapper {
 
     /**
      * From entity transaction to response dto transaction.
+     * Walks the lazy account and user associations: lists should come from the
+     * projection queries of the transaction repository instead.
      *
      * @param transaction the transaction
      * @return the transaction response dto
@@ -0,0 +1,15 @@
+package com.payMyBuddy.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the statements Hibernate prepares, see hibernate.session_factory.statement_inspector.
+ */
+public class CountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementStats.statementPrepared(sql);
+        return sql;
+    }
+}
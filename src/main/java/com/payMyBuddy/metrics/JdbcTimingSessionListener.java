@@ -0,0 +1,29 @@
+package com.payMyBuddy.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Times the statement executions of every session, see hibernate.session.events.auto.
+ */
+public class JdbcTimingSessionListener implements SessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        SqlStatementStats.executeStarted();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        SqlStatementStats.executeEnded();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        SqlStatementStats.executeStarted();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        SqlStatementStats.executeEnded();
+    }
+}
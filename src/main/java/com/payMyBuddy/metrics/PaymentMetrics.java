@@ -0,0 +1,111 @@
+package com.payMyBuddy.metrics;
+
+import com.payMyBuddy.model.Transaction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The type Payment metrics.
+ * <p>
+ * Business counters of the money movements. The movements are counted once committed : an attempt replayed
+ * after a conflict, or rolled back, does not count.
+ */
+@Component
+public class PaymentMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Counter deposits;
+    private final Counter withdrawals;
+    private final DistributionSummary depositAmounts;
+    private final DistributionSummary withdrawalAmounts;
+    private final DistributionSummary transferAmounts;
+
+    /**
+     * Instantiates a new Payment metrics.
+     *
+     * @param meterRegistry the meter registry
+     */
+    public PaymentMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.deposits = meterRegistry.counter("payments.deposits");
+        this.withdrawals = meterRegistry.counter("payments.withdrawals");
+        this.depositAmounts = amounts("payments.deposits.amount");
+        this.withdrawalAmounts = amounts("payments.withdrawals.amount");
+        this.transferAmounts = amounts("payments.transfers.amount");
+    }
+
+    /**
+     * Count committed transfers.
+     *
+     * @param transactions the transactions
+     */
+    public void transfersCompleted(Collection<Transaction> transactions) {
+        List<Transaction> completed = List.copyOf(transactions);
+        afterCommit(() -> completed.forEach(transaction -> {
+            meterRegistry.counter("payments.transfers", "type", transaction.getType().name().toLowerCase()).increment();
+            transferAmounts.record(transaction.getAmount().doubleValue());
+        }));
+    }
+
+    /**
+     * Count a committed deposit.
+     *
+     * @param amount the amount
+     */
+    public void depositCompleted(BigDecimal amount) {
+        afterCommit(() -> {
+            deposits.increment();
+            depositAmounts.record(amount.doubleValue());
+        });
+    }
+
+    /**
+     * Count a committed withdrawal.
+     *
+     * @param amount the amount
+     */
+    public void withdrawalCompleted(BigDecimal amount) {
+        afterCommit(() -> {
+            withdrawals.increment();
+            withdrawalAmounts.record(amount.doubleValue());
+        });
+    }
+
+    /**
+     * Count a movement refused for insufficient balance, right away since its transaction rolls back.
+     *
+     * @param operation the operation : transfer, bulk_transfer or withdrawal
+     */
+    public void balanceCheckFailed(String operation) {
+        meterRegistry.counter("payments.balance.check.failures", "operation", operation).increment();
+    }
+
+    private DistributionSummary amounts(String name) {
+        return DistributionSummary.builder(name)
+            .baseUnit("euros")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    private void afterCommit(Runnable count) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            count.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                count.run();
+            }
+        });
+    }
+}
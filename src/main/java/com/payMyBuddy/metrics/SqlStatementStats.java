@@ -0,0 +1,162 @@
+package com.payMyBuddy.metrics;
+
+import java.util.function.Supplier;
+
+/**
+ * The type Sql statement stats.
+ * <p>
+ * Statements prepared and JDBC time spent by the current thread, between {@link #start()} and {@link #stop()}.
+ * Fed by {@link CountingStatementInspector} and {@link JdbcTimingSessionListener}, nothing is recorded on a thread
+ * that did not start a collection.
+ */
+public final class SqlStatementStats {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long jdbcNanos;
+    private long slowestNanos;
+    private String slowestSql;
+
+    private String lastSql;
+    private long executeStart;
+
+    private SqlStatementStats() {
+    }
+
+    /**
+     * Start a collection on the current thread.
+     *
+     * @return the sql statement stats
+     */
+    public static SqlStatementStats start() {
+        SqlStatementStats stats = new SqlStatementStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Stop the collection of the current thread.
+     */
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Collect the statements of an action, for the assertions of the tests.
+     *
+     * @param action the action
+     * @return the sql statement stats of the action alone
+     */
+    public static SqlStatementStats track(Runnable action) {
+        return track(() -> {
+            action.run();
+            return null;
+        }).stats;
+    }
+
+    /**
+     * Collect the statements of an action returning a result, for the assertions of the tests.
+     *
+     * @param <T>    the type of the result
+     * @param action the action
+     * @return the result and the sql statement stats of the action alone
+     */
+    public static <T> Tracked<T> track(Supplier<T> action) {
+        SqlStatementStats outer = CURRENT.get();
+        SqlStatementStats stats = start();
+        try {
+            return new Tracked<>(action.get(), stats);
+        } finally {
+            if (outer != null) {
+                outer.add(stats);
+                CURRENT.set(outer);
+            } else {
+                stop();
+            }
+        }
+    }
+
+    static void statementPrepared(String sql) {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements++;
+            stats.lastSql = sql;
+        }
+    }
+
+    static void executeStarted() {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.executeStart = System.nanoTime();
+        }
+    }
+
+    static void executeEnded() {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats != null && stats.executeStart != 0) {
+            long nanos = System.nanoTime() - stats.executeStart;
+            stats.executeStart = 0;
+            stats.jdbcNanos += nanos;
+            if (nanos > stats.slowestNanos) {
+                stats.slowestNanos = nanos;
+                stats.slowestSql = stats.lastSql;
+            }
+        }
+    }
+
+    private void add(SqlStatementStats inner) {
+        statements += inner.statements;
+        jdbcNanos += inner.jdbcNanos;
+        if (inner.slowestNanos > slowestNanos) {
+            slowestNanos = inner.slowestNanos;
+            slowestSql = inner.slowestSql;
+        }
+    }
+
+    /**
+     * Gets the number of statements prepared, a JDBC batch counting once.
+     *
+     * @return the statements
+     */
+    public int getStatements() {
+        return statements;
+    }
+
+    /**
+     * Gets the time spent executing the statements, in nanoseconds.
+     *
+     * @return the jdbc nanos
+     */
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    /**
+     * Gets the execution time of the slowest statement, in nanoseconds.
+     *
+     * @return the slowest nanos
+     */
+    public long getSlowestNanos() {
+        return slowestNanos;
+    }
+
+    /**
+     * Gets the sql of the slowest statement, without its parameters.
+     *
+     * @return the slowest sql
+     */
+    public String getSlowestSql() {
+        return slowestSql;
+    }
+
+    /**
+     * The result of a tracked action and its statements.
+     *
+     * @param <T>    the type of the result
+     * @param result the result
+     * @param stats  the stats
+     */
+    public record Tracked<T>(T result, SqlStatementStats stats) {
+    }
+}
@@ -0,0 +1,113 @@
+package com.payMyBuddy.metrics;
+
+import com.payMyBuddy.config.SqlInstrumentationProperties;
+import com.payMyBuddy.exception.SqlBudgetExceededException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The type Sql statements filter.
+ * <p>
+ * Collects the statements of each request : metrics tagged by mapping, response headers, and a log line
+ * for the requests over the statement budget or running a slow statement.
+ */
+public class SqlStatementsFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementsFilter.class);
+
+    static final String STATEMENTS_HEADER = "X-Sql-Statements";
+    static final String TIME_HEADER = "X-Sql-Time";
+
+    private final SqlInstrumentationProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Instantiates a new Sql statements filter.
+     *
+     * @param properties    the properties
+     * @param meterRegistry the meter registry
+     */
+    public SqlStatementsFilter(SqlInstrumentationProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        SqlStatementStats stats = SqlStatementStats.start();
+        try {
+            filterChain.doFilter(request, properties.isResponseHeaders() ? new HeadersOnCommit(response, stats) : response);
+        } finally {
+            SqlStatementStats.stop();
+        }
+
+        record(request, stats);
+    }
+
+    private void record(HttpServletRequest request, SqlStatementStats stats) {
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+            .tag("method", request.getMethod())
+            .tag("uri", uri)
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(stats.getStatements());
+        Timer.builder("http.server.requests.sql.time")
+            .tag("method", request.getMethod())
+            .tag("uri", uri)
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+
+        boolean overBudget = stats.getStatements() > properties.getStatementBudget();
+        boolean slow = stats.getSlowestNanos() > properties.getSlowQueryThreshold().toNanos();
+        if (!overBudget && !slow) {
+            return;
+        }
+
+        String message = String.format("%s %s : %d requêtes (budget %d), %d ms JDBC, la plus lente %d ms : %s",
+            request.getMethod(), uri, stats.getStatements(), properties.getStatementBudget(),
+            TimeUnit.NANOSECONDS.toMillis(stats.getJdbcNanos()),
+            TimeUnit.NANOSECONDS.toMillis(stats.getSlowestNanos()), stats.getSlowestSql());
+
+        if (overBudget && properties.isFailOnBudgetExceeded()) {
+            throw new SqlBudgetExceededException(message);
+        }
+        logger.warn(message);
+    }
+
+    // the headers must be written before the body commits the response, the statements run after that are left out
+    private static final class HeadersOnCommit extends OnCommittedResponseWrapper {
+
+        private final SqlStatementStats stats;
+
+        private HeadersOnCommit(HttpServletResponse response, SqlStatementStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            setHeader(STATEMENTS_HEADER, String.valueOf(stats.getStatements()));
+            setHeader(TIME_HEADER, TimeUnit.NANOSECONDS.toMicros(stats.getJdbcNanos()) + "us");
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.payMyBuddy.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -10,7 +12,13 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "accounts", schema = "pay_my_buddy")
+@Table(
+    name = "accounts",
+    schema = "pay_my_buddy",
+    uniqueConstraints = @UniqueConstraint(name = "uk_accounts_user_name", columnNames = {"user_id", "name"})
+)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "accounts")
 @Getter @Setter
 @NoArgsConstructor
 @AllArgsConstructor
@@ -34,6 +42,11 @@ public class Account {
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
+    // optimistic locking of the balance, see AccountLockingProperties
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "senderAccount", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<Transaction> sentTransactions = new HashSet<>();
 
@@ -48,6 +61,7 @@ public class Account {
                 ", balance=" + balance +
                 ", name='" + name + '\'' +
                 ", createdAt=" + createdAt +
+                ", version=" + version +
                 ", sentTransactions=" + (sentTransactions != null ? sentTransactions.size() : "NULL") +
                 ", receivedTransactions=" + (receivedTransactions != null ? receivedTransactions.size() : "NULL") +
                 '}';
@@ -0,0 +1,39 @@
+package com.payMyBuddy.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// balance of an account once every ledger entry up to accountVersion is applied
+@Entity
+@Table(
+    name = "balance_snapshots",
+    schema = "pay_my_buddy",
+    indexes = @Index(name = "idx_balance_snapshots_account_version", columnList = "account_id, account_version")
+)
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class BalanceSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false, updatable = false)
+    private Integer accountId;
+
+    @Column(name = "balance", nullable = false, updatable = false, precision = 10, scale = 2)
+    private BigDecimal balance;
+
+    @Column(name = "account_version", nullable = false, updatable = false)
+    private Long accountVersion;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+}
@@ -0,0 +1,58 @@
+package com.payMyBuddy.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// append-only : one row per balance movement, never updated nor deleted
+@Entity
+@Table(
+    name = "ledger_entries",
+    schema = "pay_my_buddy",
+    indexes = @Index(name = "idx_ledger_entries_account_version", columnList = "account_id, account_version")
+)
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "ledger_entry_id_generator")
+    @TableGenerator(
+            name = "ledger_entry_id_generator",
+            schema = "pay_my_buddy",
+            table = "id_generators",
+            pkColumnName = "sequence_name",
+            valueColumnName = "next_val",
+            pkColumnValue = "ledger_entries",
+            allocationSize = 50
+    )
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    // plain ids rather than associations, the history outlives the accounts and transactions
+    @Column(name = "account_id", nullable = false, updatable = false)
+    private Integer accountId;
+
+    @Column(name = "transaction_id", updatable = false)
+    private Integer transactionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, updatable = false)
+    private LedgerEntryType type;
+
+    // signed : negative for debits
+    @Column(name = "amount", nullable = false, updatable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    // version of the account row written by the same database transaction, orders the entries of an account
+    @Column(name = "account_version", nullable = false, updatable = false)
+    private Long accountVersion;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+}
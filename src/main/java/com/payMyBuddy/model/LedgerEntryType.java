@@ -0,0 +1,8 @@
+package com.payMyBuddy.model;
+
+public enum LedgerEntryType {
+    TRANSFER_DEBIT,
+    TRANSFER_CREDIT,
+    DEPOSIT,
+    WITHDRAWAL
+}
@@ -8,14 +8,31 @@ import java.math.BigDecimal;
 import java.time.Instant;
 
 @Entity
-@Table(name = "transactions", schema = "pay_my_buddy")
+@Table(
+    name = "transactions",
+    schema = "pay_my_buddy",
+    indexes = {
+        @Index(name = "idx_transactions_sender_created", columnList = "sender_account_id, created_at, id"),
+        @Index(name = "idx_transactions_receiver_created", columnList = "receiver_account_id, created_at, id")
+    }
+)
 @Getter @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Transaction {
 
+    // pooled table generator instead of IDENTITY, so that Hibernate can batch the inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "transaction_id_generator")
+    @TableGenerator(
+            name = "transaction_id_generator",
+            schema = "pay_my_buddy",
+            table = "id_generators",
+            pkColumnName = "sequence_name",
+            valueColumnName = "next_val",
+            pkColumnValue = "transactions",
+            allocationSize = 50
+    )
     @Column(name = "id", nullable = false)
     private Integer id;
 
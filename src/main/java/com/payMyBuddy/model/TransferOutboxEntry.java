@@ -0,0 +1,78 @@
+package com.payMyBuddy.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// one row per committed transfer, until its TransferCompletedEvent has been delivered and the retention is over,
+// or for good once dead-lettered
+@Entity
+@Table(
+    name = "transfer_outbox",
+    schema = "pay_my_buddy",
+    indexes = @Index(name = "idx_transfer_outbox_published_created", columnList = "published_at, created_at")
+)
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class TransferOutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "transfer_outbox_id_generator")
+    @TableGenerator(
+            name = "transfer_outbox_id_generator",
+            schema = "pay_my_buddy",
+            table = "id_generators",
+            pkColumnName = "sequence_name",
+            valueColumnName = "next_val",
+            pkColumnValue = "transfer_outbox",
+            allocationSize = 50
+    )
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    // plain ids rather than associations, the event outlives the accounts and transactions
+    @Column(name = "transaction_id", nullable = false, updatable = false)
+    private Integer transactionId;
+
+    @Column(name = "sender_account_id", nullable = false, updatable = false)
+    private Integer senderAccountId;
+
+    @Column(name = "sender_user_id", nullable = false, updatable = false)
+    private Integer senderUserId;
+
+    @Column(name = "receiver_account_id", nullable = false, updatable = false)
+    private Integer receiverAccountId;
+
+    @Column(name = "receiver_user_id", nullable = false, updatable = false)
+    private Integer receiverUserId;
+
+    @Column(name = "amount", nullable = false, updatable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, updatable = false)
+    private TransactionType type;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    // null until the event has been delivered to every handler
+    @Column(name = "published_at")
+    private Instant publishedAt;
+
+    // failed deliveries of this entry alone, the poller leaves it until next_attempt_at
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at")
+    private Instant nextAttemptAt;
+
+    // set past the maximum number of attempts : the entry is no longer delivered, nor purged
+    @Column(name = "dead_lettered_at")
+    private Instant deadLetteredAt;
+
+}
@@ -3,12 +3,16 @@ package com.payMyBuddy.model;
 import com.payMyBuddy.exception.AddContactException;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
 @Table(name = "users", schema = "pay_my_buddy")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Getter @Setter
 @NoArgsConstructor
 @AllArgsConstructor
@@ -33,14 +37,18 @@ public class User {
             fetch = FetchType.LAZY,
             cascade = CascadeType.ALL
     )
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-accounts")
     private Set<Account> accounts = new HashSet<>();
 
     @ManyToMany
     @JoinTable(
             name = "user_contacts",
+            schema = "pay_my_buddy",
             joinColumns = @JoinColumn(name = "user_id"),
-            inverseJoinColumns = @JoinColumn(name = "contact_id")
+            inverseJoinColumns = @JoinColumn(name = "contact_id"),
+            indexes = @Index(name = "idx_user_contacts_contact", columnList = "contact_id, user_id")
     )
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-contacts")
     private Set<User> contacts = new HashSet<>();
 
     public void addContact(User contact) {
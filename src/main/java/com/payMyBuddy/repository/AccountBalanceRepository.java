@@ -0,0 +1,31 @@
+package com.payMyBuddy.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * The interface Account balance repository, the single-statement balance updates of {@link AccountRepository}.
+ * <p>
+ * The statements bump the version so that optimistic readers of the row notice the change. The persistence
+ * context is flushed first but not cleared : an instance of the account it already holds keeps the old balance
+ * and version until it is refreshed. The second-level cache entry of the account is left to the caller to evict.
+ */
+public interface AccountBalanceRepository {
+
+    /**
+     * Add the amount to the balance in a single statement, without loading the account.
+     *
+     * @param id     the account id
+     * @param amount the amount
+     * @return the number of updated rows, 0 if the account does not exist
+     */
+    int creditBalance(Integer id, BigDecimal amount);
+
+    /**
+     * Subtract the amount from the balance in a single statement, only if the balance covers it.
+     *
+     * @param id     the account id
+     * @param amount the amount
+     * @return the number of updated rows, 0 if the account does not exist or the balance is insufficient
+     */
+    int debitBalance(Integer id, BigDecimal amount);
+}
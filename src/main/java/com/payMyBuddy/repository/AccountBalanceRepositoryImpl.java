@@ -0,0 +1,58 @@
+package com.payMyBuddy.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * The type Account balance repository implementation.
+ * <p>
+ * The statements run through the JDBC coordinator of the session, as Hibernate runs its own : the statement
+ * inspector and the session events see them. They are not Hibernate bulk operations though, which empty the
+ * whole {@code accounts} region and every cached {@code User.accounts} collection, whatever the row they change.
+ */
+@RequiredArgsConstructor
+public class AccountBalanceRepositoryImpl implements AccountBalanceRepository {
+
+    private static final String CREDIT =
+        "UPDATE accounts SET balance = balance + ?, version = version + 1 WHERE id = ?";
+    private static final String DEBIT =
+        "UPDATE accounts SET balance = balance - ?, version = version + 1 WHERE id = ? AND balance >= ?";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public int creditBalance(Integer id, BigDecimal amount) {
+        return executeUpdate(CREDIT, amount, id);
+    }
+
+    @Override
+    public int debitBalance(Integer id, BigDecimal amount) {
+        return executeUpdate(DEBIT, amount, id, amount);
+    }
+
+    private int executeUpdate(String sql, Object... parameters) {
+
+        // the pending changes of the transaction reach the row before the statement
+        entityManager.flush();
+
+        JdbcCoordinator jdbcCoordinator = entityManager.unwrap(SharedSessionContractImplementor.class).getJdbcCoordinator();
+        PreparedStatement statement = jdbcCoordinator.getStatementPreparer().prepareStatement(sql);
+        try {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            return jdbcCoordinator.getResultSetReturn().executeUpdate(statement, sql);
+        } catch (SQLException e) {
+            throw jdbcCoordinator.getJdbcSessionOwner().getSqlExceptionHelper().convert(e, "Could not update the balance", sql);
+        } finally {
+            jdbcCoordinator.getLogicalConnection().getResourceRegistry().release(statement);
+            jdbcCoordinator.afterStatementExecution();
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package com.payMyBuddy.repository;
 
 import com.payMyBuddy.model.Account;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 /**
  * The interface Account repository.
  */
 @Repository
-public interface AccountRepository extends JpaRepository<Account, Integer> {
+public interface AccountRepository extends JpaRepository<Account, Integer>, AccountBalanceRepository {
 
     /**
      * Check if account exists by name and user id and return a boolean.
@@ -28,4 +35,68 @@ public interface AccountRepository extends JpaRepository<Account, Integer> {
      * @return the set
      */
     Set<Account> findByUserId(Integer userId);
-}
\ No newline at end of file
+
+    /**
+     * Find the accounts of several users at once, with their owner, and return a list of account.
+     *
+     * @param userIds the user ids
+     * @return the list
+     */
+    @Query("SELECT a FROM Account a JOIN FETCH a.user u WHERE u.id IN :userIds")
+    List<Account> findByUserIdIn(@Param("userIds") Collection<Integer> userIds);
+
+    /**
+     * Find by id and lock the row (SELECT ... FOR UPDATE) until the end of the current transaction.
+     *
+     * @param id the account id
+     * @return the optional
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id = :id")
+    Optional<Account> findByIdForUpdate(@Param("id") Integer id);
+
+    /**
+     * Find the ids of the accounts of a user, without loading them, and return a list of account id.
+     *
+     * @param userId the user id
+     * @return the list
+     */
+    @Query("SELECT a.id FROM Account a WHERE a.user.id = :userId ORDER BY a.id")
+    List<Integer> findIdsByUserId(@Param("userId") Integer userId);
+
+    /**
+     * Find several accounts by id and lock their rows, in ascending id order, until the end of the current transaction.
+     *
+     * @param ids the account ids
+     * @return the list
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id IN :ids ORDER BY a.id")
+    List<Account> findAllByIdForUpdate(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Find the current version of an account, without loading it.
+     *
+     * @param id the account id
+     * @return the optional
+     */
+    @Query("SELECT a.version FROM Account a WHERE a.id = :id")
+    Optional<Long> findVersionById(@Param("id") Integer id);
+
+    /**
+     * Find the id of the owner of an account, without loading it.
+     *
+     * @param id the account id
+     * @return the optional
+     */
+    @Query("SELECT a.user.id FROM Account a WHERE a.id = :id")
+    Optional<Integer> findUserIdById(@Param("id") Integer id);
+
+    /**
+     * Find the ids of all accounts, in ascending order.
+     *
+     * @return the list
+     */
+    @Query("SELECT a.id FROM Account a ORDER BY a.id")
+    List<Integer> findAllIds();
+}
@@ -0,0 +1,34 @@
+package com.payMyBuddy.repository;
+
+import com.payMyBuddy.model.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * The interface Balance snapshot repository.
+ */
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+
+    /**
+     * Find the most recent snapshot of an account.
+     *
+     * @param accountId the account id
+     * @return the optional
+     */
+    Optional<BalanceSnapshot> findFirstByAccountIdOrderByAccountVersionDesc(Integer accountId);
+
+    /**
+     * Find the most recent snapshot of an account taken at or before an instant.
+     *
+     * @param accountId the account id
+     * @param at        the instant
+     * @return the optional
+     */
+    Optional<BalanceSnapshot> findFirstByAccountIdAndCreatedAtLessThanEqualOrderByAccountVersionDesc(
+        Integer accountId, Instant at
+    );
+}
@@ -0,0 +1,62 @@
+package com.payMyBuddy.repository;
+
+import com.payMyBuddy.model.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The interface Ledger entry repository.
+ */
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    /**
+     * Find the entries of an account, in the order they were applied, and return a list of ledger entry.
+     *
+     * @param accountId the account id
+     * @return the list
+     */
+    List<LedgerEntry> findByAccountIdOrderByAccountVersionAscIdAsc(Integer accountId);
+
+    /**
+     * Sum the entries of an account applied after a version, up to and including another one.
+     *
+     * @param accountId   the account id
+     * @param fromVersion the exclusive lower version
+     * @param toVersion   the inclusive upper version
+     * @return the sum, zero if there is no entry
+     */
+    @Query("""
+        SELECT COALESCE(SUM(e.amount), 0) FROM LedgerEntry e
+        WHERE e.accountId = :accountId AND e.accountVersion > :fromVersion AND e.accountVersion <= :toVersion
+        """)
+    BigDecimal sumAmountBetweenVersions(
+        @Param("accountId") Integer accountId,
+        @Param("fromVersion") Long fromVersion,
+        @Param("toVersion") Long toVersion
+    );
+
+    /**
+     * Sum the entries of an account applied after a version and created at or before an instant.
+     *
+     * @param accountId   the account id
+     * @param fromVersion the exclusive lower version
+     * @param at          the instant
+     * @return the sum, zero if there is no entry
+     */
+    @Query("""
+        SELECT COALESCE(SUM(e.amount), 0) FROM LedgerEntry e
+        WHERE e.accountId = :accountId AND e.accountVersion > :fromVersion AND e.createdAt <= :at
+        """)
+    BigDecimal sumAmountAfterVersionUntil(
+        @Param("accountId") Integer accountId,
+        @Param("fromVersion") Long fromVersion,
+        @Param("at") Instant at
+    );
+}
@@ -1,9 +1,15 @@
 package com.payMyBuddy.repository;
 
+import com.payMyBuddy.dto.transaction.TransactionResponseDTO;
 import com.payMyBuddy.model.Transaction;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -13,11 +19,101 @@ import java.util.List;
 public interface TransactionRepository extends JpaRepository<Transaction, Integer> {
 
     /**
-     * Find by the sender account user id or receiver account user id and return a list of transaction.
+     * Find the most recent transactions of the accounts of a user, newest first, and return them as response dtos.
+     * Accounts and users are joined in the same statement so no lazy association is loaded afterwards.
+     * The sent and the received transactions are the two branches of a union, each one filtered on the account
+     * column of its side so that it is served by the (account, created_at, id) index of that side, where a single
+     * OR across both sides, or a filter on the joined users, scans the whole table.
+     * Each branch is ordered and limited on its own, so that the union only holds the newest rows of each side
+     * instead of the whole history of the user, before the final sort.
      *
-     * @param currentUserId  the current user id
-     * @param currentUserId1 the current user id 1
+     * @param accountIds the ids of the accounts of the user, not empty
+     * @param limit      the maximum number of rows
      * @return the list
      */
-    List<Transaction> findBySenderAccount_User_IdOrReceiverAccount_User_Id(Integer currentUserId, Integer currentUserId1);
-}
\ No newline at end of file
+    @Query("""
+        SELECT new com.payMyBuddy.dto.transaction.TransactionResponseDTO(
+            h.id,
+            h.senderAccountId, h.senderAccountName, h.senderId, h.senderUsername,
+            h.receiverAccountId, h.receiverAccountName, h.receiverId, h.receiverUsername,
+            h.amount, h.description, h.type, h.createdAt
+        )
+        FROM (
+            (SELECT t.id id,
+                t.senderAccount.id senderAccountId, t.senderAccount.name senderAccountName,
+                t.senderAccount.user.id senderId, t.senderAccount.user.username senderUsername,
+                t.receiverAccount.id receiverAccountId, t.receiverAccount.name receiverAccountName,
+                t.receiverAccount.user.id receiverId, t.receiverAccount.user.username receiverUsername,
+                t.amount amount, t.description description, t.type type, t.createdAt createdAt
+            FROM Transaction t
+            WHERE fk(t.senderAccount) IN :accountIds
+            ORDER BY t.createdAt DESC, t.id DESC
+            LIMIT :#{#limit.isLimited() ? #limit.max() : T(Integer).MAX_VALUE})
+            UNION ALL
+            (SELECT t.id id,
+                t.senderAccount.id senderAccountId, t.senderAccount.name senderAccountName,
+                t.senderAccount.user.id senderId, t.senderAccount.user.username senderUsername,
+                t.receiverAccount.id receiverAccountId, t.receiverAccount.name receiverAccountName,
+                t.receiverAccount.user.id receiverId, t.receiverAccount.user.username receiverUsername,
+                t.amount amount, t.description description, t.type type, t.createdAt createdAt
+            FROM Transaction t
+            WHERE fk(t.receiverAccount) IN :accountIds AND fk(t.senderAccount) NOT IN :accountIds
+            ORDER BY t.createdAt DESC, t.id DESC
+            LIMIT :#{#limit.isLimited() ? #limit.max() : T(Integer).MAX_VALUE})
+        ) h
+        ORDER BY h.createdAt DESC, h.id DESC
+        """)
+    List<TransactionResponseDTO> findLatestForUser(@Param("accountIds") Collection<Integer> accountIds, Limit limit);
+
+    /**
+     * Find the transactions of the accounts of a user strictly older than the (createdAt, id) cursor, newest first,
+     * and return them as response dtos. Same union as {@link #findLatestForUser(Collection, Limit)},
+     * the cursor and the limit being applied in each branch.
+     *
+     * @param accountIds the ids of the accounts of the user, not empty
+     * @param createdAt  the created at of the last row already seen
+     * @param id         the id of the last row already seen
+     * @param limit      the maximum number of rows
+     * @return the list
+     */
+    @Query("""
+        SELECT new com.payMyBuddy.dto.transaction.TransactionResponseDTO(
+            h.id,
+            h.senderAccountId, h.senderAccountName, h.senderId, h.senderUsername,
+            h.receiverAccountId, h.receiverAccountName, h.receiverId, h.receiverUsername,
+            h.amount, h.description, h.type, h.createdAt
+        )
+        FROM (
+            (SELECT t.id id,
+                t.senderAccount.id senderAccountId, t.senderAccount.name senderAccountName,
+                t.senderAccount.user.id senderId, t.senderAccount.user.username senderUsername,
+                t.receiverAccount.id receiverAccountId, t.receiverAccount.name receiverAccountName,
+                t.receiverAccount.user.id receiverId, t.receiverAccount.user.username receiverUsername,
+                t.amount amount, t.description description, t.type type, t.createdAt createdAt
+            FROM Transaction t
+            WHERE fk(t.senderAccount) IN :accountIds
+              AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id))
+            ORDER BY t.createdAt DESC, t.id DESC
+            LIMIT :#{#limit.isLimited() ? #limit.max() : T(Integer).MAX_VALUE})
+            UNION ALL
+            (SELECT t.id id,
+                t.senderAccount.id senderAccountId, t.senderAccount.name senderAccountName,
+                t.senderAccount.user.id senderId, t.senderAccount.user.username senderUsername,
+                t.receiverAccount.id receiverAccountId, t.receiverAccount.name receiverAccountName,
+                t.receiverAccount.user.id receiverId, t.receiverAccount.user.username receiverUsername,
+                t.amount amount, t.description description, t.type type, t.createdAt createdAt
+            FROM Transaction t
+            WHERE fk(t.receiverAccount) IN :accountIds AND fk(t.senderAccount) NOT IN :accountIds
+              AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id))
+            ORDER BY t.createdAt DESC, t.id DESC
+            LIMIT :#{#limit.isLimited() ? #limit.max() : T(Integer).MAX_VALUE})
+        ) h
+        ORDER BY h.createdAt DESC, h.id DESC
+        """)
+    List<TransactionResponseDTO> findForUserBefore(
+        @Param("accountIds") Collection<Integer> accountIds,
+        @Param("createdAt") Instant createdAt,
+        @Param("id") Integer id,
+        Limit limit
+    );
+}
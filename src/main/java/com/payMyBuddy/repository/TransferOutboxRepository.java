@@ -0,0 +1,65 @@
+package com.payMyBuddy.repository;
+
+import com.payMyBuddy.model.TransferOutboxEntry;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The interface Transfer outbox repository.
+ */
+@Repository
+public interface TransferOutboxRepository extends JpaRepository<TransferOutboxEntry, Long> {
+
+    /**
+     * Find the oldest entries not yet published nor dead-lettered, created before an instant and due for another
+     * attempt, and lock their rows until the end of the current transaction. Rows already locked by another instance
+     * are skipped (SKIP LOCKED) rather than waited for, so that several pollers share the backlog.
+     *
+     * @param before the instant
+     * @param now    the current instant
+     * @param limit  the maximum number of entries
+     * @return the list
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+        SELECT e FROM TransferOutboxEntry e
+        WHERE e.publishedAt IS NULL AND e.deadLetteredAt IS NULL AND e.createdAt < :before
+          AND (e.nextAttemptAt IS NULL OR e.nextAttemptAt <= :now)
+        ORDER BY e.createdAt, e.id
+        """)
+    List<TransferOutboxEntry> findPendingForUpdate(@Param("before") Instant before, @Param("now") Instant now, Limit limit);
+
+    /**
+     * Mark entries as published, unless they already are.
+     *
+     * @param ids         the entry ids
+     * @param publishedAt the publication instant
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("UPDATE TransferOutboxEntry e SET e.publishedAt = :publishedAt WHERE e.id IN :ids AND e.publishedAt IS NULL")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") Instant publishedAt);
+
+    /**
+     * Delete the entries published before an instant.
+     *
+     * @param before the instant
+     * @return the number of deleted rows
+     */
+    @Modifying
+    @Query("DELETE FROM TransferOutboxEntry e WHERE e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") Instant before);
+}
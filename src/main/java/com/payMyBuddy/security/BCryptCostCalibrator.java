@@ -0,0 +1,63 @@
+package com.payMyBuddy.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Picks the BCrypt cost from the time a hash takes on the host : every extra log round doubles it.
+ */
+public final class BCryptCostCalibrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(BCryptCostCalibrator.class);
+
+    private static final int SAMPLES = 3;
+
+    private BCryptCostCalibrator() {
+    }
+
+    /**
+     * Calibrate the cost.
+     *
+     * @param targetLatency the target latency of a single hash
+     * @param minStrength   the min strength, kept even when slower than the target
+     * @param maxStrength   the max strength
+     * @return the highest strength whose median hash time stays under the target
+     */
+    public static int calibrate(Duration targetLatency, int minStrength, int maxStrength) {
+
+        // first hash pays the class loading and the JIT warm-up
+        new BCryptPasswordEncoder(minStrength).encode("calibration");
+
+        int strength = minStrength;
+        for (int candidate = minStrength; candidate <= maxStrength; candidate++) {
+            long nanos = medianEncodeNanos(candidate);
+            logger.info("BCrypt coût {} : {} ms", candidate, nanos / 1_000_000);
+
+            if (nanos > targetLatency.toNanos()) {
+                break;
+            }
+            strength = candidate;
+        }
+
+        logger.info("BCrypt coût retenu : {} (cible {} ms)", strength, targetLatency.toMillis());
+        return strength;
+    }
+
+    private static long medianEncodeNanos(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long[] samples = new long[SAMPLES];
+
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration");
+            samples[i] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
@@ -2,30 +2,82 @@ package com.payMyBuddy.security;
 
 import com.payMyBuddy.repository.UserRepository;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.payMyBuddy.model.User;
 
+import java.util.concurrent.TimeUnit;
+
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    /**
+     * Cache of the authentication principals, keyed by email, see spring.cache.caffeine.spec for its bounds.
+     */
+    public static final String USER_DETAILS_CACHE = "userDetails";
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final Timer cacheHits;
+    private final Timer cacheMisses;
+    private final Counter rehashes;
 
     @Autowired
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, UserCache userCache, MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.cacheHits = meterRegistry.timer("security.user.lookup", "cache", "hit");
+        this.cacheMisses = meterRegistry.timer("security.user.lookup", "cache", "miss");
+        this.rehashes = meterRegistry.counter("security.password.rehash");
     }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
 
-        User user = userRepository.findByEmail(email)
+        long start = System.nanoTime();
+
+        UserDetails cached = userCache.getUserFromCache(email);
+        if (cached != null) {
+            cacheHits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return cached;
+        }
+
+        try {
+            User user = userRepository.findByEmail(email)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+
+            UserDetails userDetails = new CustomUserDetails(user);
+            userCache.putUserInCache(userDetails);
+            return userDetails;
+        } finally {
+            cacheMisses.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // called by the authentication provider after a successful login, when the stored hash is not at the configured cost
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+
+        User user = userRepository.findByEmail(userDetails.getUsername())
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
-        return new CustomUserDetails(user);
+        // dirty checking rather than a bulk update, which would drop the whole users region of the second-level cache
+        user.setPassword(newPassword);
+        rehashes.increment();
+
+        UserDetails upgraded = new CustomUserDetails(user);
+        userCache.putUserInCache(upgraded);
+        return upgraded;
     }
 }
@@ -7,8 +7,6 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.LoginUrlAuthenticationEntryPoint;
 
@@ -30,6 +28,8 @@ public class SecurityConfig {
             .authorizeHttpRequests(configurer ->
                 configurer
                     .requestMatchers("/login", "/signup", "/processSignup", "/error").permitAll()
+                    // management port, bound to the loopback interface only
+                    .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                     .anyRequest().authenticated()
             )
             .formLogin(form ->
@@ -54,11 +54,6 @@ public class SecurityConfig {
         return http.build();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
         return config.getAuthenticationManager();
@@ -0,0 +1,43 @@
+package com.payMyBuddy.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder asking for an upgrade of every hash whose cost differs from its own, lower or higher :
+ * the cost can then be lowered for login throughput as well as raised, without a password reset.
+ * The stock encoder only upgrades the weaker hashes.
+ */
+public class TargetCostBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2([ayb])?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+    private final int strength;
+
+    /**
+     * Instantiates a new Target cost b crypt password encoder.
+     *
+     * @param strength the log rounds new hashes are encoded with
+     */
+    public TargetCostBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        // not a bcrypt hash : left to matches() to reject
+        if (!matcher.matches()) {
+            return false;
+        }
+
+        return Integer.parseInt(matcher.group(2)) != strength;
+    }
+}
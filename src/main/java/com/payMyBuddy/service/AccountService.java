@@ -1,5 +1,6 @@
 package com.payMyBuddy.service;
 
+import com.payMyBuddy.config.AccountLockingProperties;
 import com.payMyBuddy.dto.account.AccountCreateDTO;
 import com.payMyBuddy.dto.account.AccountResponseDTO;
 import com.payMyBuddy.dto.account.BalanceUpdateDTO;
@@ -7,20 +8,28 @@ import com.payMyBuddy.dto.account.ReceiversAccountsResponseDTO;
 import com.payMyBuddy.dto.user.ContactResponseDTO;
 import com.payMyBuddy.dto.user.UserResponseDTO;
 import com.payMyBuddy.exception.ConflictException;
+import com.payMyBuddy.exception.InsufficientBalanceException;
 import com.payMyBuddy.exception.ResourceNotFoundException;
 import com.payMyBuddy.mapper.AccountMapper;
+import com.payMyBuddy.metrics.PaymentMetrics;
 import com.payMyBuddy.model.Account;
 import com.payMyBuddy.model.User;
 import com.payMyBuddy.repository.AccountRepository;
-import jakarta.transaction.Transactional;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * The type Account service.
@@ -35,6 +44,16 @@ public class AccountService {
 
     private final UserService userService;
 
+    private final AccountLockingProperties lockingProperties;
+
+    private final LedgerService ledgerService;
+
+    private final EntityCacheService entityCacheService;
+
+    private final PaymentMetrics paymentMetrics;
+
+    private final EntityManager entityManager;
+
     /**
      * Find account by id - internal use.
      *
@@ -46,6 +65,56 @@ public class AccountService {
             .orElseThrow(() -> new ResourceNotFoundException("Compte non trouvé."));
     }
 
+    /**
+     * Find account by id and lock it until the end of the transaction - internal use.
+     *
+     * @param accountId the account id
+     * @return the account
+     */
+    public Account findAccountByIdForUpdateInternalUse(Integer accountId) {
+        return accountRepository.findByIdForUpdate(accountId)
+            .orElseThrow(() -> new ResourceNotFoundException("Compte non trouvé."));
+    }
+
+    /**
+     * Find account by id before changing its balance - internal use.
+     * The row is locked with the pessimistic strategy, the version column guards it otherwise.
+     *
+     * @param accountId the account id
+     * @return the account
+     */
+    public Account findAccountForBalanceUpdateInternalUse(Integer accountId) {
+        return lockingProperties.getStrategy() == AccountLockingProperties.Strategy.PESSIMISTIC
+            ? findAccountByIdForUpdateInternalUse(accountId)
+            : findAccountByIdInternalUse(accountId);
+    }
+
+    /**
+     * Find the ids of the accounts of a user - internal use.
+     *
+     * @param userId the user id
+     * @return the account ids
+     */
+    public List<Integer> findAccountIdsInternalUse(Integer userId) {
+        return accountRepository.findIdsByUserId(userId);
+    }
+
+    /**
+     * Find several accounts by id before changing their balances, in one query - internal use.
+     * Missing ids are simply absent from the returned map.
+     *
+     * @param accountIds the account ids
+     * @return the accounts by id
+     */
+    public Map<Integer, Account> findAccountsForBalanceUpdateInternalUse(Collection<Integer> accountIds) {
+        List<Account> accounts = lockingProperties.getStrategy() == AccountLockingProperties.Strategy.PESSIMISTIC
+            ? accountRepository.findAllByIdForUpdate(accountIds)
+            : accountRepository.findAllById(accountIds);
+
+        return accounts.stream()
+            .collect(Collectors.toMap(Account::getId, Function.identity()));
+    }
+
     /**
      * Create account.
      *
@@ -66,6 +135,10 @@ public class AccountService {
         account.setCreatedAt(Instant.now());
 
         accountRepository.save(account);
+
+        // User.accounts is the inverse side, Hibernate does not refresh its cached copy on its own
+        entityCacheService.evictUserAccounts(userId);
+        entityCacheService.evictUserResponse(userId);
     }
 
     /**
@@ -77,22 +150,52 @@ public class AccountService {
 
         Account account = findAccountByIdInternalUse(accountId);
         accountRepository.delete(account);
+
+        entityCacheService.evictAccount(accountId);
+        entityCacheService.evictUserAccounts(account.getUser().getId());
+        entityCacheService.evictUserResponse(account.getUser().getId());
     }
 
     /**
-     * Update balance account.
+     * Update balance account, with a single atomic statement.
+     * The other entities of the current transaction stay managed, only the account is reloaded if it was loaded.
      *
      * @param balanceUpdateDTO the balance update dto
      */
     public void updateBalanceAccount(BalanceUpdateDTO balanceUpdateDTO) {
 
-        Account account = findAccountByIdInternalUse(balanceUpdateDTO.getAccountId());
-        account.setBalance(
-            account.getBalance()
-                .add(balanceUpdateDTO.getAmount())
-        );
+        int updated = accountRepository.creditBalance(balanceUpdateDTO.getAccountId(), balanceUpdateDTO.getAmount());
+        if (updated == 0) {
+            throw new ResourceNotFoundException("Compte non trouvé.");
+        }
 
-        accountRepository.save(account);
+        refreshIfLoaded(balanceUpdateDTO.getAccountId());
+        ledgerService.recordDeposit(balanceUpdateDTO.getAccountId(), balanceUpdateDTO.getAmount());
+        evictBalance(balanceUpdateDTO.getAccountId());
+        paymentMetrics.depositCompleted(balanceUpdateDTO.getAmount());
+    }
+
+    /**
+     * Debit balance account, with a single atomic statement guarded by the current balance.
+     * As for a deposit, only the account is reloaded if it was loaded.
+     *
+     * @param balanceUpdateDTO the balance update dto
+     */
+    public void debitBalanceAccount(BalanceUpdateDTO balanceUpdateDTO) {
+
+        int updated = accountRepository.debitBalance(balanceUpdateDTO.getAccountId(), balanceUpdateDTO.getAmount());
+        if (updated == 0) {
+            if (!accountRepository.existsById(balanceUpdateDTO.getAccountId())) {
+                throw new ResourceNotFoundException("Compte non trouvé.");
+            }
+            paymentMetrics.balanceCheckFailed("withdrawal");
+            throw new InsufficientBalanceException("Solde insuffisant. Veuillez alimenter votre compte.");
+        }
+
+        refreshIfLoaded(balanceUpdateDTO.getAccountId());
+        ledgerService.recordWithdrawal(balanceUpdateDTO.getAccountId(), balanceUpdateDTO.getAmount());
+        evictBalance(balanceUpdateDTO.getAccountId());
+        paymentMetrics.withdrawalCompleted(balanceUpdateDTO.getAmount());
     }
 
     /**
@@ -101,39 +204,37 @@ public class AccountService {
      * @param userId the user id
      * @return the list
      */
+    @Transactional(readOnly = true)
     public List<ReceiversAccountsResponseDTO> findAccountsForCurrentUserAndHisContacts(Integer userId) {
 
-        List<ReceiversAccountsResponseDTO> allAccountsDTO = new ArrayList<>();
-
         UserResponseDTO currentUser = userService.findByUserId(userId);
-        List<AccountResponseDTO> selfAccounts =
-            accountRepository.findByUserId(userId).stream()
-                .map(accountMapper::toAccountResponseDTO)
-                .toList();
+        Set<ContactResponseDTO> contacts = currentUser.getContacts();
+
+        List<Integer> ownerIds = new ArrayList<>();
+        ownerIds.add(userId);
+        contacts.forEach(contact -> ownerIds.add(contact.getContactId()));
+
+        // a single round-trip for the user and all of his contacts, grouped by owner afterwards
+        Map<Integer, List<AccountResponseDTO>> accountsByOwner = accountRepository.findByUserIdIn(ownerIds).stream()
+            .collect(Collectors.groupingBy(
+                account -> account.getUser().getId(),
+                Collectors.mapping(accountMapper::toAccountResponseDTO, Collectors.toList())
+            ));
+
+        List<ReceiversAccountsResponseDTO> allAccountsDTO = new ArrayList<>();
 
         allAccountsDTO.add(
             new ReceiversAccountsResponseDTO(
                 currentUser.getUsername(),
-                selfAccounts
+                accountsByOwner.getOrDefault(userId, List.of())
         ));
 
-        Set<ContactResponseDTO> contacts = currentUser.getContacts();
-
-        allAccountsDTO.addAll(
-            contacts.stream()
-                .map(contact -> {
-
-                    Set<Account> accounts = accountRepository.findByUserId(contact.getContactId());
-                    List<AccountResponseDTO> beneficiaryAccounts = accounts.stream()
-                        .map(accountMapper::toAccountResponseDTO)
-                        .toList();
-
-                    return new ReceiversAccountsResponseDTO(
-                        contact.getUsername(),
-                        beneficiaryAccounts
-                    );
-
-                }).toList()
+        contacts.forEach(contact ->
+            allAccountsDTO.add(
+                new ReceiversAccountsResponseDTO(
+                    contact.getUsername(),
+                    accountsByOwner.getOrDefault(contact.getContactId(), List.of())
+            ))
         );
 
         return allAccountsDTO;
@@ -146,5 +247,20 @@ public class AccountService {
      */
     public void saveAccount(Account account) {
         accountRepository.save(account);
+        entityCacheService.evictUserResponse(account.getUser().getId());
+    }
+
+    // the bulk update bypassed the instance of the persistence context, if any : a later flush of it would
+    // write back the old balance, or fail on its old version
+    private void refreshIfLoaded(Integer accountId) {
+        Account account = entityManager.getReference(Account.class, accountId);
+        if (Hibernate.isInitialized(account)) {
+            entityManager.refresh(account);
+        }
+    }
+
+    private void evictBalance(Integer accountId) {
+        entityCacheService.evictAccount(accountId);
+        accountRepository.findUserIdById(accountId).ifPresent(entityCacheService::evictUserResponse);
     }
 }
@@ -0,0 +1,155 @@
+package com.payMyBuddy.service;
+
+import com.payMyBuddy.datasource.ReplicaLagMonitor;
+import com.payMyBuddy.model.Account;
+import com.payMyBuddy.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+
+/**
+ * The type Entity cache service.
+ * <p>
+ * Explicit eviction from the second-level cache, for the changes Hibernate does not evict on its own : inverse
+ * collections ({@code User.accounts}), and the single-statement balance updates of
+ * {@link com.payMyBuddy.repository.AccountBalanceRepository}, which bypass its bulk operations so as to evict
+ * the account changed alone.
+ * Evictions run after commit, so that a concurrent reader cannot put the old state back in the meantime.
+ * <p>
+ * Also evicts the {@link UserService#USER_RESPONSE_CACHE} read model and the cached authentication principals,
+ * which nothing refreshes on their own.
+ * <p>
+ * With a read replica, a read-only transaction may put back the state the replica has not caught up with yet :
+ * every eviction runs once more when the replica can no longer be behind that commit.
+ */
+@Service
+public class EntityCacheService {
+
+    private static final String USER_ACCOUNTS = User.class.getName() + ".accounts";
+    private static final String USER_CONTACTS = User.class.getName() + ".contacts";
+
+    private final Cache cache;
+    private final org.springframework.cache.Cache userResponses;
+    private final UserCache userCache;
+    private final ReplicaLagMonitor replicaLagMonitor;
+    private final TaskScheduler taskScheduler;
+
+    /**
+     * Instantiates a new Entity cache service.
+     *
+     * @param entityManagerFactory the entity manager factory
+     * @param cacheManager         the cache manager
+     * @param userCache            the user cache
+     * @param replicaLagMonitor    the replica lag monitor, absent without a read replica
+     * @param taskScheduler        the task scheduler
+     */
+    public EntityCacheService(
+        EntityManagerFactory entityManagerFactory,
+        CacheManager cacheManager,
+        UserCache userCache,
+        ObjectProvider<ReplicaLagMonitor> replicaLagMonitor,
+        TaskScheduler taskScheduler
+    ) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        this.userResponses = cacheManager.getCache(UserService.USER_RESPONSE_CACHE);
+        this.userCache = userCache;
+        this.replicaLagMonitor = replicaLagMonitor.getIfAvailable();
+        this.taskScheduler = taskScheduler;
+    }
+
+    /**
+     * Evict an account.
+     *
+     * @param accountId the account id
+     */
+    public void evictAccount(Integer accountId) {
+        afterCommit(() -> cache.evictEntityData(Account.class, accountId));
+    }
+
+    /**
+     * Evict the accounts collection of a user.
+     *
+     * @param userId the user id
+     */
+    public void evictUserAccounts(Integer userId) {
+        afterCommit(() -> cache.evictCollectionData(USER_ACCOUNTS, userId));
+    }
+
+    /**
+     * Evict the contacts collection of a user.
+     *
+     * @param userId the user id
+     */
+    public void evictUserContacts(Integer userId) {
+        afterCommit(() -> cache.evictCollectionData(USER_CONTACTS, userId));
+    }
+
+    /**
+     * Evict the cached response dto of a user.
+     * Evicted right away so that the rest of the transaction reads its own writes, and again once it completes,
+     * committed or not, in case a read of the transaction put it back in the meantime.
+     *
+     * @param userId the user id
+     */
+    public void evictUserResponse(Integer userId) {
+        if (userResponses == null) {
+            return;
+        }
+        nowAndAfterCompletion(() -> userResponses.evict(userId));
+    }
+
+    /**
+     * Evict the cached authentication principal of a user, the next login reads the stored password again.
+     * Same timing as {@link #evictUserResponse(Integer)}.
+     *
+     * @param email the email
+     */
+    public void evictUserDetails(String email) {
+        nowAndAfterCompletion(() -> userCache.removeUserFromCache(email));
+    }
+
+    private void nowAndAfterCompletion(Runnable eviction) {
+        eviction.run();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onceReplicated(eviction);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                eviction.run();
+                onceReplicated(eviction);
+            }
+        });
+    }
+
+    private void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            onceReplicated(eviction);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+                onceReplicated(eviction);
+            }
+        });
+    }
+
+    private void onceReplicated(Runnable eviction) {
+        if (replicaLagMonitor != null) {
+            taskScheduler.schedule(eviction, Instant.now().plus(replicaLagMonitor.getMaxStaleness()));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.payMyBuddy.service;
+
+import com.payMyBuddy.dto.account.BalanceReconciliationDTO;
+import com.payMyBuddy.exception.ResourceNotFoundException;
+import com.payMyBuddy.repository.AccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * The type Ledger reconciliation job.
+ * <p>
+ * Checks every account against its ledger, one short transaction per account, and advances the snapshots.
+ */
+@Component
+public class LedgerReconciliationJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerReconciliationJob.class);
+
+    private final LedgerService ledgerService;
+    private final AccountRepository accountRepository;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Instantiates a new Ledger reconciliation job.
+     *
+     * @param ledgerService     the ledger service
+     * @param accountRepository the account repository
+     * @param meterRegistry     the meter registry
+     */
+    public LedgerReconciliationJob(LedgerService ledgerService, AccountRepository accountRepository, MeterRegistry meterRegistry) {
+        this.ledgerService = ledgerService;
+        this.accountRepository = accountRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Reconcile all accounts.
+     *
+     * @return the number of accounts whose balance does not match the ledger
+     */
+    @Scheduled(cron = "${paymybuddy.ledger.reconciliation.cron}")
+    public int reconcileAllAccounts() {
+
+        int mismatches = 0;
+        for (Integer accountId : accountRepository.findAllIds()) {
+            try {
+                BalanceReconciliationDTO reconciliation = ledgerService.reconcileAccount(accountId);
+                meterRegistry.counter("ledger.reconciliation.accounts").increment();
+
+                if (!reconciliation.isConsistent()) {
+                    mismatches++;
+                    meterRegistry.counter("ledger.reconciliation.mismatches").increment();
+                    logger.warn("Solde incohérent pour le compte {} : {} en base, {} selon le grand livre",
+                        accountId, reconciliation.getAccountBalance(), reconciliation.getLedgerBalance());
+                }
+            } catch (ResourceNotFoundException ex) {
+                // deleted since the ids were listed
+            }
+        }
+        return mismatches;
+    }
+}
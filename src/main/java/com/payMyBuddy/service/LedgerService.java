@@ -0,0 +1,147 @@
+package com.payMyBuddy.service;
+
+import com.payMyBuddy.dto.account.BalanceReconciliationDTO;
+import com.payMyBuddy.exception.ResourceNotFoundException;
+import com.payMyBuddy.model.Account;
+import com.payMyBuddy.model.BalanceSnapshot;
+import com.payMyBuddy.model.LedgerEntry;
+import com.payMyBuddy.model.LedgerEntryType;
+import com.payMyBuddy.model.Transaction;
+import com.payMyBuddy.repository.AccountRepository;
+import com.payMyBuddy.repository.BalanceSnapshotRepository;
+import com.payMyBuddy.repository.LedgerEntryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The type Ledger service.
+ * <p>
+ * Every balance movement is appended as a ledger entry carrying the account version written by the same
+ * database transaction. The row lock taken by that write orders the versions of an account, so a snapshot
+ * (balance, version) plus the entries of higher versions always gives the balance, without scanning the history.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class LedgerService {
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final AccountRepository accountRepository;
+
+    /**
+     * Record the debit and credit entries of transfers whose accounts were just updated in memory.
+     *
+     * @param transactions the transactions
+     */
+    public void recordTransfers(Collection<Transaction> transactions) {
+
+        List<LedgerEntry> entries = new ArrayList<>(transactions.size() * 2);
+        for (Transaction transaction : transactions) {
+            entries.add(transferEntry(
+                transaction, transaction.getSenderAccount(), LedgerEntryType.TRANSFER_DEBIT, transaction.getAmount().negate()
+            ));
+            entries.add(transferEntry(
+                transaction, transaction.getReceiverAccount(), LedgerEntryType.TRANSFER_CREDIT, transaction.getAmount()
+            ));
+        }
+        ledgerEntryRepository.saveAll(entries);
+    }
+
+    /**
+     * Record a deposit already applied to the account row.
+     *
+     * @param accountId the account id
+     * @param amount    the amount
+     */
+    public void recordDeposit(Integer accountId, BigDecimal amount) {
+        ledgerEntryRepository.save(movementEntry(accountId, LedgerEntryType.DEPOSIT, amount));
+    }
+
+    /**
+     * Record a withdrawal already applied to the account row.
+     *
+     * @param accountId the account id
+     * @param amount    the amount
+     */
+    public void recordWithdrawal(Integer accountId, BigDecimal amount) {
+        ledgerEntryRepository.save(movementEntry(accountId, LedgerEntryType.WITHDRAWAL, amount.negate()));
+    }
+
+    /**
+     * Find the balance of an account at a given instant, from the last snapshot taken before it.
+     *
+     * @param accountId the account id
+     * @param at        the instant
+     * @return the balance
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal findBalanceAt(Integer accountId, Instant at) {
+
+        Optional<BalanceSnapshot> snapshot = balanceSnapshotRepository
+            .findFirstByAccountIdAndCreatedAtLessThanEqualOrderByAccountVersionDesc(accountId, at);
+
+        BigDecimal balance = snapshot.map(BalanceSnapshot::getBalance).orElse(BigDecimal.ZERO);
+        Long version = snapshot.map(BalanceSnapshot::getAccountVersion).orElse(0L);
+
+        return balance.add(ledgerEntryRepository.sumAmountAfterVersionUntil(accountId, version, at));
+    }
+
+    /**
+     * Check the balance of an account against its ledger, reading only the entries since the last snapshot.
+     * When they match, a new snapshot is taken so that the next check starts from here.
+     *
+     * @param accountId the account id
+     * @return the reconciliation
+     */
+    public BalanceReconciliationDTO reconcileAccount(Integer accountId) {
+
+        // no lock : the account row and the entries are read from the same consistent snapshot of the transaction
+        Account account = accountRepository.findById(accountId)
+            .orElseThrow(() -> new ResourceNotFoundException("Compte non trouvé."));
+
+        Optional<BalanceSnapshot> snapshot = balanceSnapshotRepository.findFirstByAccountIdOrderByAccountVersionDesc(accountId);
+        BigDecimal snapshotBalance = snapshot.map(BalanceSnapshot::getBalance).orElse(BigDecimal.ZERO);
+        Long snapshotVersion = snapshot.map(BalanceSnapshot::getAccountVersion).orElse(0L);
+
+        BigDecimal ledgerBalance = snapshotBalance.add(
+            ledgerEntryRepository.sumAmountBetweenVersions(accountId, snapshotVersion, account.getVersion())
+        );
+        boolean consistent = ledgerBalance.compareTo(account.getBalance()) == 0;
+
+        if (consistent && account.getVersion() > snapshotVersion) {
+            balanceSnapshotRepository.save(new BalanceSnapshot(
+                null, accountId, account.getBalance(), account.getVersion(), now()
+            ));
+        }
+
+        return new BalanceReconciliationDTO(accountId, account.getBalance(), ledgerBalance, consistent);
+    }
+
+    // the balance change is written by the next flush, which bumps the version of the account by one
+    private LedgerEntry transferEntry(Transaction transaction, Account account, LedgerEntryType type, BigDecimal amount) {
+        return new LedgerEntry(
+            null, account.getId(), transaction.getId(), type, amount, account.getVersion() + 1, transaction.getCreatedAt()
+        );
+    }
+
+    // called after the single-statement update, which has already bumped the version
+    private LedgerEntry movementEntry(Integer accountId, LedgerEntryType type, BigDecimal amount) {
+        Long version = accountRepository.findVersionById(accountId)
+            .orElseThrow(() -> new ResourceNotFoundException("Compte non trouvé."));
+        return new LedgerEntry(null, accountId, null, type, amount, version, now());
+    }
+
+    private Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
@@ -1,21 +1,34 @@
 package com.payMyBuddy.service;
 
+import com.payMyBuddy.aspect.RetryOnConflict;
 import com.payMyBuddy.dto.transaction.TransactionCreateDTO;
+import com.payMyBuddy.dto.transaction.TransactionPageResponseDTO;
 import com.payMyBuddy.dto.transaction.TransactionResponseDTO;
+import com.payMyBuddy.dto.transaction.TransactionResultDTO;
 import com.payMyBuddy.exception.InsufficientBalanceException;
 import com.payMyBuddy.exception.SelfSendingAmountException;
 import com.payMyBuddy.mapper.TransactionMapper;
+import com.payMyBuddy.metrics.PaymentMetrics;
 import com.payMyBuddy.model.Account;
 import com.payMyBuddy.model.Transaction;
 import com.payMyBuddy.model.TransactionType;
 import com.payMyBuddy.repository.TransactionRepository;
-import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
-import java.util.Comparator;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * The type Transaction service.
@@ -30,40 +43,100 @@ public class TransactionService {
 
     private final AccountService accountService;
 
+    private final Validator validator;
+
+    private final LedgerService ledgerService;
+
+    private final TransferOutboxService transferOutboxService;
+
+    private final EntityCacheService entityCacheService;
+
+    private final PaymentMetrics paymentMetrics;
+
+    /**
+     * Default number of transactions displayed per page of history.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
     /**
-     * Find transactions list for current user.
+     * Find transactions list for current user, newest first.
      *
      * @param currentUserId the current user id
-     * @param limit         the limit
+     * @param limit         the limit, 0 or less for the whole history
      * @return the list
      */
+    @Transactional(readOnly = true)
     public List<TransactionResponseDTO> findTransactionsForCurrentUser(Integer currentUserId, int limit) {
 
-        List<TransactionResponseDTO> transactions = transactionRepository
-            .findBySenderAccount_User_IdOrReceiverAccount_User_Id(currentUserId, currentUserId)
-            .stream()
-            .map(transactionMapper::toResponseDTO)
-            .sorted(Comparator.comparing(TransactionResponseDTO::getCreatedAt).reversed())
-            .toList();
-
-        if (limit > 0) {
-            return transactions
-                .stream()
-                .limit(limit)
-                .toList();
+        // the history is read on the account columns of the transactions, an IN list must not be empty
+        List<Integer> accountIds = accountService.findAccountIdsInternalUse(currentUserId);
+        if (accountIds.isEmpty()) {
+            return List.of();
         }
-        return transactions;
+
+        return transactionRepository.findLatestForUser(accountIds, limit > 0 ? Limit.of(limit) : Limit.unlimited());
     }
 
     /**
-     * Create transaction.
+     * Find a page of transactions for current user, newest first, using keyset pagination.
+     *
+     * @param currentUserId the current user id
+     * @param cursor        the cursor returned with the previous page, null for the first page
+     * @param size          the page size
+     * @return the transaction page response dto
+     */
+    @Transactional(readOnly = true)
+    public TransactionPageResponseDTO findTransactionsPageForCurrentUser(Integer currentUserId, String cursor, int size) {
+
+        // one extra row tells us whether an older page exists
+        Limit limit = Limit.of(size + 1);
+        String[] position = decodeCursor(cursor);
+
+        List<Integer> accountIds = accountService.findAccountIdsInternalUse(currentUserId);
+        if (accountIds.isEmpty()) {
+            return new TransactionPageResponseDTO(List.of(), null);
+        }
+
+        List<TransactionResponseDTO> transactions = position == null
+            ? transactionRepository.findLatestForUser(accountIds, limit)
+            : transactionRepository.findForUserBefore(
+                accountIds,
+                Instant.parse(position[0]),
+                Integer.valueOf(position[1]),
+                limit
+            );
+
+        String nextCursor = null;
+        if (transactions.size() > size) {
+            transactions = transactions.subList(0, size);
+            nextCursor = encodeCursor(transactions.getLast());
+        }
+
+        return new TransactionPageResponseDTO(transactions, nextCursor);
+    }
+
+    /**
+     * Create transaction. The balance check and the updates are protected against concurrent transfers
+     * by the account locking strategy, and replayed when they lose a race.
      *
      * @param transactionCreateDTO the transaction create dto
      */
+    @RetryOnConflict
     public void createTransaction(TransactionCreateDTO transactionCreateDTO) {
 
-        Account senderAccount = accountService.findAccountByIdInternalUse(transactionCreateDTO.getSenderAccountId());
-        Account receiverAccount = accountService.findAccountByIdInternalUse(transactionCreateDTO.getReceiverAccountId());
+        Integer senderAccountId = transactionCreateDTO.getSenderAccountId();
+        Integer receiverAccountId = transactionCreateDTO.getReceiverAccountId();
+
+        // rows are always read in ascending id order, so two opposite transfers cannot deadlock on their locks
+        Account senderAccount;
+        Account receiverAccount;
+        if (senderAccountId.compareTo(receiverAccountId) <= 0) {
+            senderAccount = accountService.findAccountForBalanceUpdateInternalUse(senderAccountId);
+            receiverAccount = accountService.findAccountForBalanceUpdateInternalUse(receiverAccountId);
+        } else {
+            receiverAccount = accountService.findAccountForBalanceUpdateInternalUse(receiverAccountId);
+            senderAccount = accountService.findAccountForBalanceUpdateInternalUse(senderAccountId);
+        }
 
         Transaction transaction = transactionMapper.toEntityFromCreateDTO(transactionCreateDTO);
 
@@ -71,6 +144,7 @@ public class TransactionService {
             throw new SelfSendingAmountException("Virement interdit sur le même compte.");
         }
         if (senderAccount.getBalance().compareTo(transaction.getAmount()) < 0) {
+            paymentMetrics.balanceCheckFailed("transfer");
             throw new InsufficientBalanceException("Solde insuffisant. Veuillez alimenter votre compte.");
         }
 
@@ -82,7 +156,8 @@ public class TransactionService {
                 ? TransactionType.SELF_TRANSFER
                 : TransactionType.BENEFICIARY_TRANSFER
         );
-        transaction.setCreatedAt(Instant.now());
+        // truncated to the column precision so that a cursor built from this entity matches the stored row
+        transaction.setCreatedAt(Instant.now().truncatedTo(ChronoUnit.MICROS));
 
         transactionRepository.save(transaction);
 
@@ -100,5 +175,128 @@ public class TransactionService {
 
         accountService.saveAccount(senderAccount);
         accountService.saveAccount(receiverAccount);
+
+        ledgerService.recordTransfers(List.of(transaction));
+        transferOutboxService.recordTransfers(List.of(transaction));
+        paymentMetrics.transfersCompleted(List.of(transaction));
+    }
+
+    /**
+     * Create a batch of transactions in a single database transaction.
+     * All referenced accounts are loaded with one query, balances are checked in memory in the submitted
+     * order, and the accepted transfers are inserted with JDBC batching. A rejected transfer does not
+     * prevent the others from being applied. Only the accounts of the current user can be debited.
+     *
+     * @param currentUserId         the current user id
+     * @param transactionCreateDTOs the transaction create dtos
+     * @return the result of each transfer, in the submitted order
+     */
+    @RetryOnConflict
+    public List<TransactionResultDTO> createTransactions(Integer currentUserId, List<TransactionCreateDTO> transactionCreateDTOs) {
+
+        Set<Integer> accountIds = new HashSet<>();
+        transactionCreateDTOs.forEach(dto -> {
+            accountIds.add(dto.getSenderAccountId());
+            accountIds.add(dto.getReceiverAccountId());
+        });
+        accountIds.remove(null);
+
+        Map<Integer, Account> accounts = accountService.findAccountsForBalanceUpdateInternalUse(accountIds);
+        Instant createdAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+        List<TransactionResultDTO> results = new ArrayList<>(transactionCreateDTOs.size());
+        List<TransactionResultDTO> acceptedResults = new ArrayList<>();
+        List<Transaction> acceptedTransactions = new ArrayList<>();
+
+        for (int index = 0; index < transactionCreateDTOs.size(); index++) {
+            TransactionCreateDTO transactionCreateDTO = transactionCreateDTOs.get(index);
+            TransactionResultDTO result = new TransactionResultDTO(index, false, null, null);
+            results.add(result);
+
+            Set<ConstraintViolation<TransactionCreateDTO>> violations = validator.validate(transactionCreateDTO);
+            if (!violations.isEmpty()) {
+                result.setMessage(violations.iterator().next().getMessage());
+                continue;
+            }
+
+            Account senderAccount = accounts.get(transactionCreateDTO.getSenderAccountId());
+            Account receiverAccount = accounts.get(transactionCreateDTO.getReceiverAccountId());
+
+            if (senderAccount == null || receiverAccount == null) {
+                result.setMessage("Compte non trouvé.");
+                continue;
+            }
+            if (!senderAccount.getUser().getId().equals(currentUserId)) {
+                result.setMessage("Ce compte expéditeur ne vous appartient pas.");
+                continue;
+            }
+            if (senderAccount.getId().equals(receiverAccount.getId())) {
+                result.setMessage("Virement interdit sur le même compte.");
+                continue;
+            }
+            if (senderAccount.getBalance().compareTo(transactionCreateDTO.getAmount()) < 0) {
+                paymentMetrics.balanceCheckFailed("bulk_transfer");
+                result.setMessage("Solde insuffisant. Veuillez alimenter votre compte.");
+                continue;
+            }
+
+            Transaction transaction = transactionMapper.toEntityFromCreateDTO(transactionCreateDTO);
+            transaction.setSenderAccount(senderAccount);
+            transaction.setReceiverAccount(receiverAccount);
+            transaction.setType(
+                senderAccount.getUser().getId().equals(receiverAccount.getUser().getId())
+                    ? TransactionType.SELF_TRANSFER
+                    : TransactionType.BENEFICIARY_TRANSFER
+            );
+            transaction.setCreatedAt(createdAt);
+
+            // in memory only, the dirty accounts are flushed once at commit
+            senderAccount.setBalance(senderAccount.getBalance().subtract(transaction.getAmount()));
+            receiverAccount.setBalance(receiverAccount.getBalance().add(transaction.getAmount()));
+
+            result.setSuccess(true);
+            acceptedResults.add(result);
+            acceptedTransactions.add(transaction);
+        }
+
+        // ids come from the pooled generator, so the inserts are left to the JDBC batch at flush time
+        transactionRepository.saveAll(acceptedTransactions);
+        ledgerService.recordTransfers(acceptedTransactions);
+        if (!acceptedTransactions.isEmpty()) {
+            transferOutboxService.recordTransfers(acceptedTransactions);
+        }
+        paymentMetrics.transfersCompleted(acceptedTransactions);
+
+        // the accounts are managed entities updated in place, without going through AccountService.saveAccount
+        acceptedTransactions.stream()
+            .flatMap(transaction -> Stream.of(transaction.getSenderAccount(), transaction.getReceiverAccount()))
+            .map(account -> account.getUser().getId())
+            .distinct()
+            .forEach(entityCacheService::evictUserResponse);
+        for (int i = 0; i < acceptedResults.size(); i++) {
+            acceptedResults.get(i).setTransactionId(acceptedTransactions.get(i).getId());
+        }
+
+        return results;
+    }
+
+    private String encodeCursor(TransactionResponseDTO transaction) {
+        return transaction.getCreatedAt() + "," + transaction.getId();
+    }
+
+    // a missing or tampered cursor simply restarts from the first page
+    private String[] decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        String[] position = cursor.split(",", 2);
+        try {
+            Instant.parse(position[0]);
+            Integer.parseInt(position[1]);
+            return position;
+        } catch (DateTimeParseException | ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            return null;
+        }
     }
 }
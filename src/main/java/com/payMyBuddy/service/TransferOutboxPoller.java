@@ -0,0 +1,67 @@
+package com.payMyBuddy.service;
+
+import com.payMyBuddy.config.TransferEventProperties;
+import com.payMyBuddy.event.TransferEventDispatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * The type Transfer outbox poller.
+ * <p>
+ * Delivers the outbox entries still pending after the grace period, which the dispatcher dropped, failed
+ * or never got because the application stopped : one short transaction per batch, then purges the old ones.
+ */
+@Component
+public class TransferOutboxPoller {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferOutboxPoller.class);
+
+    private final TransferOutboxService transferOutboxService;
+    private final TransferEventDispatcher transferEventDispatcher;
+    private final TransferEventProperties.Outbox outbox;
+
+    /**
+     * Instantiates a new Transfer outbox poller.
+     *
+     * @param transferOutboxService   the transfer outbox service
+     * @param transferEventDispatcher the transfer event dispatcher
+     * @param properties              the properties
+     */
+    public TransferOutboxPoller(
+        TransferOutboxService transferOutboxService,
+        TransferEventDispatcher transferEventDispatcher,
+        TransferEventProperties properties
+    ) {
+        this.transferOutboxService = transferOutboxService;
+        this.transferEventDispatcher = transferEventDispatcher;
+        this.outbox = properties.getOutbox();
+    }
+
+    /**
+     * Drain the pending entries, batch after batch, until a batch comes back short or fails.
+     *
+     * @return the number of entries published
+     */
+    @Scheduled(fixedDelayString = "${paymybuddy.events.transfer.outbox.poll-interval}")
+    public int publishPending() {
+
+        Instant before = Instant.now().minus(outbox.getGrace());
+        int published = 0;
+        int batch;
+        do {
+            batch = transferOutboxService.publishPending(before, outbox.getBatchSize(), transferEventDispatcher::deliver);
+            published += batch;
+        } while (batch == outbox.getBatchSize());
+
+        if (published > 0) {
+            logger.info("{} événements de virement livrés depuis l'outbox", published);
+        }
+
+        transferOutboxService.purgePublished(Instant.now().minus(outbox.getRetention()));
+        return published;
+    }
+}
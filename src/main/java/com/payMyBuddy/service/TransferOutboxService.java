@@ -0,0 +1,152 @@
+package com.payMyBuddy.service;
+
+import com.payMyBuddy.config.TransferEventProperties;
+import com.payMyBuddy.event.TransferCompletedEvent;
+import com.payMyBuddy.model.Transaction;
+import com.payMyBuddy.model.TransferOutboxEntry;
+import com.payMyBuddy.repository.TransferOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * The type Transfer outbox service.
+ * <p>
+ * The outbox entry of a transfer is written by the database transaction of the transfer : both commit or neither.
+ * Its event is published in that transaction too, and only reaches the listeners once it has committed.
+ * An entry the handlers keep failing on is retried with a growing delay, then dead-lettered.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class TransferOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferOutboxService.class);
+
+    private final TransferOutboxRepository transferOutboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransferEventProperties properties;
+
+    /**
+     * Record transfers in the outbox and publish their events, within the transaction creating them.
+     *
+     * @param transactions the transactions, already persisted
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransfers(Collection<Transaction> transactions) {
+
+        List<TransferOutboxEntry> entries = transactions.stream()
+            .map(transaction -> new TransferOutboxEntry(
+                null,
+                transaction.getId(),
+                transaction.getSenderAccount().getId(),
+                transaction.getSenderAccount().getUser().getId(),
+                transaction.getReceiverAccount().getId(),
+                transaction.getReceiverAccount().getUser().getId(),
+                transaction.getAmount(),
+                transaction.getType(),
+                transaction.getCreatedAt(),
+                null,
+                0,
+                null,
+                null
+            ))
+            .toList();
+
+        // ids come from the pooled generator : the inserts go with the JDBC batch of the transfers at flush time
+        transferOutboxRepository.saveAll(entries);
+        entries.forEach(entry -> eventPublisher.publishEvent(TransferCompletedEvent.of(entry)));
+    }
+
+    /**
+     * Mark entries as published.
+     *
+     * @param ids the entry ids
+     * @return the number of entries marked, those already published by the poller excluded
+     */
+    public int markPublished(Collection<Long> ids) {
+        return transferOutboxRepository.markPublished(ids, now());
+    }
+
+    /**
+     * Deliver the oldest unpublished entries created before an instant and due, locked for the time of the delivery,
+     * and mark them as published if it succeeds. When the batch fails, its entries are delivered one by one :
+     * those failing alone are retried later, or dead-lettered past the maximum number of attempts, and the others
+     * are published.
+     *
+     * @param before    the instant
+     * @param batchSize the maximum number of entries
+     * @param delivery  the delivery, true once every handler got the events
+     * @return the number of entries published, 0 when there is none or all of them failed
+     */
+    public int publishPending(Instant before, int batchSize, Predicate<List<TransferCompletedEvent>> delivery) {
+
+        Instant now = now();
+        List<TransferOutboxEntry> pending = transferOutboxRepository.findPendingForUpdate(before, now, Limit.of(batchSize));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        // managed entities : one batched update at commit
+        if (delivery.test(pending.stream().map(TransferCompletedEvent::of).toList())) {
+            pending.forEach(entry -> entry.setPublishedAt(now));
+            return pending.size();
+        }
+
+        // one entry the handlers reject must not hold back the others : the batch goes again entry by entry,
+        // an entry failing alone being already known when it was the whole batch
+        int published = 0;
+        for (TransferOutboxEntry entry : pending) {
+            if (pending.size() > 1 && delivery.test(List.of(TransferCompletedEvent.of(entry)))) {
+                entry.setPublishedAt(now);
+                published++;
+            } else {
+                attemptFailed(entry, now);
+            }
+        }
+        return published;
+    }
+
+    /**
+     * Purge the entries published before an instant.
+     *
+     * @param before the instant
+     * @return the number of deleted entries
+     */
+    public int purgePublished(Instant before) {
+        return transferOutboxRepository.deletePublishedBefore(before);
+    }
+
+    private void attemptFailed(TransferOutboxEntry entry, Instant now) {
+        TransferEventProperties.Outbox outbox = properties.getOutbox();
+        int attempts = entry.getAttempts() + 1;
+        entry.setAttempts(attempts);
+
+        if (attempts >= outbox.getMaxAttempts()) {
+            entry.setDeadLetteredAt(now);
+            logger.error("Événement du virement {} mis de côté après {} tentatives de livraison (entrée d'outbox {})",
+                entry.getTransactionId(), attempts, entry.getId());
+            return;
+        }
+
+        double exponential = outbox.getInitialBackoff().toMillis() * Math.pow(outbox.getMultiplier(), attempts - 1);
+        long delay = (long) Math.min(exponential, outbox.getMaxBackoff().toMillis());
+        entry.setNextAttemptAt(now.plus(Duration.ofMillis(delay)));
+    }
+
+    private Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
@@ -11,12 +11,12 @@ import com.payMyBuddy.exception.ResourceNotFoundException;
 import com.payMyBuddy.mapper.UserMapper;
 import com.payMyBuddy.model.User;
 import com.payMyBuddy.repository.UserRepository;
-import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * The type User service.
@@ -25,26 +25,41 @@ import org.springframework.stereotype.Service;
 @Transactional
 public class UserService {
 
+    /**
+     * Cache of the user response dtos, keyed by user id, see spring.cache.caffeine.spec for its bounds.
+     */
+    public static final String USER_RESPONSE_CACHE = "userResponses";
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
 
     private final AccountService accountService;
+    private final EntityCacheService entityCacheService;
 
     /**
      * Instantiates a new User service.
      *
-     * @param userRepository the user repository
-     * @param userMapper     the user mapper
-     * @param accountService the account service
+     * @param userRepository     the user repository
+     * @param userMapper         the user mapper
+     * @param passwordEncoder    the password encoder
+     * @param accountService     the account service
+     * @param entityCacheService the entity cache service
      */
     @Autowired
-    public UserService(UserRepository userRepository, UserMapper userMapper, @Lazy AccountService accountService) {
+    public UserService(
+        UserRepository userRepository,
+        UserMapper userMapper,
+        PasswordEncoder passwordEncoder,
+        @Lazy AccountService accountService,
+        EntityCacheService entityCacheService
+    ) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
-        this.passwordEncoder = new BCryptPasswordEncoder();
+        this.passwordEncoder = passwordEncoder;
 
         this.accountService = accountService;
+        this.entityCacheService = entityCacheService;
     }
 
     /**
@@ -62,8 +77,10 @@ public class UserService {
      * Find by user id.
      *
      * @param userId the user id
-     * @return the user response dto
+     * @return the user response dto, shared between callers : read only
      */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = USER_RESPONSE_CACHE, key = "#userId")
     public UserResponseDTO findByUserId(Integer userId) {
         return userRepository.findById(userId)
             .map(userMapper::toUserResponseDTO)
@@ -87,6 +104,7 @@ public class UserService {
      * @param email the email
      * @return the boolean
      */
+    @Transactional(readOnly = true)
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
     }
@@ -106,6 +124,8 @@ public class UserService {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
 
         userRepository.save(user);
+        // a principal cached under this email would carry another id
+        entityCacheService.evictUserDetails(user.getEmail());
 
         accountService.createAccount(
             new AccountCreateDTO("Pay My Buddy"),
@@ -129,6 +149,11 @@ public class UserService {
 
         userRepository.save(user);
         userRepository.save(contact);
+
+        entityCacheService.evictUserContacts(user.getId());
+        entityCacheService.evictUserContacts(contact.getId());
+        entityCacheService.evictUserResponse(user.getId());
+        entityCacheService.evictUserResponse(contact.getId());
     }
 
     /**
@@ -147,6 +172,11 @@ public class UserService {
 
         userRepository.save(user);
         userRepository.save(contact);
+
+        entityCacheService.evictUserContacts(user.getId());
+        entityCacheService.evictUserContacts(contact.getId());
+        entityCacheService.evictUserResponse(user.getId());
+        entityCacheService.evictUserResponse(contact.getId());
     }
 
     /**
@@ -168,5 +198,7 @@ public class UserService {
         user.setPassword(passwordEncoder.encode(userPasswordUpdateDTO.getNewPassword()));
 
         userRepository.save(user);
+        entityCacheService.evictUserResponse(userId);
+        entityCacheService.evictUserDetails(user.getEmail());
     }
 }
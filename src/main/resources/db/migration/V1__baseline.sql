@@ -0,0 +1,39 @@
+-- Schema as created by data/data_prod.sql before the migrations, timestamps to the second included.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate) and only get the next ones.
+
+CREATE TABLE users (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(50) NOT NULL,
+    email VARCHAR(100) NOT NULL,
+    password VARCHAR(100) NOT NULL,
+    CONSTRAINT unique_email UNIQUE (email)
+);
+
+CREATE TABLE user_contacts (
+    user_id INT NOT NULL,
+    contact_id INT NOT NULL,
+    PRIMARY KEY (user_id, contact_id),
+    CONSTRAINT fk_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_contact FOREIGN KEY (contact_id) REFERENCES users (id)
+);
+
+CREATE TABLE accounts (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    user_id INT NOT NULL,
+    balance DECIMAL(10, 2) NOT NULL DEFAULT 0.00,
+    name VARCHAR(50) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_user_account FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE transactions (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    sender_account_id INT NOT NULL,
+    receiver_account_id INT NOT NULL,
+    amount DECIMAL(10, 2) NOT NULL,
+    description VARCHAR(255),
+    type VARCHAR(50) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_sender_account FOREIGN KEY (sender_account_id) REFERENCES accounts (id) ON DELETE CASCADE,
+    CONSTRAINT fk_receiver_account FOREIGN KEY (receiver_account_id) REFERENCES accounts (id) ON DELETE CASCADE
+);
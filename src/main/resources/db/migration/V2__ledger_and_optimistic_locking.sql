@@ -0,0 +1,39 @@
+-- Columns and tables the entities gained since version 1 : the optimistic locking of the balances, the pooled
+-- id generators of the transfers, the ledger and its snapshots.
+
+ALTER TABLE accounts ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE id_generators (
+    sequence_name VARCHAR(255) NOT NULL PRIMARY KEY,
+    next_val BIGINT
+);
+
+CREATE TABLE ledger_entries (
+    id BIGINT PRIMARY KEY,
+    account_id INT NOT NULL,
+    transaction_id INT,
+    type VARCHAR(50) NOT NULL,
+    amount DECIMAL(10, 2) NOT NULL,
+    account_version BIGINT NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX idx_ledger_entries_account_version ON ledger_entries (account_id, account_version);
+
+CREATE TABLE balance_snapshots (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    account_id INT NOT NULL,
+    balance DECIMAL(10, 2) NOT NULL,
+    account_version BIGINT NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX idx_balance_snapshots_account_version ON balance_snapshots (account_id, account_version);
+
+-- the (created_at, id) cursor of the transaction history needs the microseconds, and a value on every row :
+-- the existing rows keep their second, the ones without any get the time of the migration
+UPDATE accounts SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL;
+ALTER TABLE accounts MODIFY created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
+
+UPDATE transactions SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL;
+ALTER TABLE transactions MODIFY created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
@@ -0,0 +1,9 @@
+-- The transfers and the ledger entries take their ids from id_generators, 50 at a time : the pooled optimizer reads
+-- next_val and hands out the block of ids just below it. Seeded 50 past the ids already used, the first block
+-- starts after them.
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'transactions', COALESCE(MAX(id), 0) + 50 FROM transactions;
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'ledger_entries', COALESCE(MAX(id), 0) + 50 FROM ledger_entries;
@@ -0,0 +1,5 @@
+-- The balances that predate the ledger have no entries behind them : the ledger of each account starts from a
+-- snapshot of its balance at this version, which the reconciliation and the balance history read from.
+
+INSERT INTO balance_snapshots (account_id, balance, account_version, created_at)
+SELECT id, balance, version, CURRENT_TIMESTAMP(6) FROM accounts;
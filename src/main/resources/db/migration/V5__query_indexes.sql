@@ -0,0 +1,15 @@
+-- Indexes of the actual query patterns.
+
+-- history of a user : one range scan per account and direction, already in (created_at, id) order for the cursor
+CREATE INDEX idx_transactions_sender_created ON transactions (sender_account_id, created_at, id);
+CREATE INDEX idx_transactions_receiver_created ON transactions (receiver_account_id, created_at, id);
+
+-- accounts of a user, and the unique account name per user checked by existsByNameAndUser_Id
+CREATE UNIQUE INDEX uk_accounts_user_name ON accounts (user_id, name);
+
+-- users having someone as contact, the primary key only serves the contacts of a user
+CREATE INDEX idx_user_contacts_contact ON user_contacts (contact_id, user_id);
+
+-- the single-column indexes MySQL created for the foreign keys are now prefixes of the ones above : the server
+-- drops them on its own as soon as another index can enforce the constraint, every write maintains one index less
+-- and the planner has no weaker candidate
@@ -0,0 +1,7 @@
+-- Heartbeat of the replication : stamped on the primary, read back on the replica, the difference is its lag.
+CREATE TABLE replication_heartbeat (
+    id   INT          NOT NULL PRIMARY KEY,
+    beat TIMESTAMP(6) NOT NULL
+);
+
+INSERT INTO replication_heartbeat (id, beat) VALUES (1, CURRENT_TIMESTAMP(6));
@@ -0,0 +1,17 @@
+-- Outbox of the committed transfers, written by the transaction of the transfer itself : the TransferCompletedEvent
+-- handlers get every transfer at least once, even when the application stops before delivering it.
+CREATE TABLE transfer_outbox (
+    id BIGINT PRIMARY KEY,
+    transaction_id INT NOT NULL,
+    sender_account_id INT NOT NULL,
+    sender_user_id INT NOT NULL,
+    receiver_account_id INT NOT NULL,
+    receiver_user_id INT NOT NULL,
+    amount DECIMAL(10, 2) NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    published_at TIMESTAMP(6) NULL
+);
+
+-- the pending rows (published_at NULL) oldest first for the poller, the published ones by date for the purge
+CREATE INDEX idx_transfer_outbox_published_created ON transfer_outbox (published_at, created_at);
@@ -0,0 +1,5 @@
+-- Failed deliveries of an outbox entry : retried with a growing delay, then set aside as dead letters past the
+-- maximum number of attempts, so that an entry no handler accepts stops holding back the ones behind it.
+ALTER TABLE transfer_outbox ADD COLUMN attempts INT NOT NULL DEFAULT 0;
+ALTER TABLE transfer_outbox ADD COLUMN next_attempt_at TIMESTAMP(6) NULL;
+ALTER TABLE transfer_outbox ADD COLUMN dead_lettered_at TIMESTAMP(6) NULL;
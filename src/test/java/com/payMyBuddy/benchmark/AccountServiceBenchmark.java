@@ -0,0 +1,76 @@
+package com.payMyBuddy.benchmark;
+
+import com.payMyBuddy.dto.account.ReceiversAccountsResponseDTO;
+import com.payMyBuddy.model.User;
+import com.payMyBuddy.service.AccountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the list of the accounts a user can send money to, per number of contacts.
+ * <p>
+ * Run with : mvn -P benchmarks test-compile exec:exec -Djmh.args=AccountServiceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountServiceBenchmark {
+
+    private static final int ACCOUNTS_PER_USER = 2;
+
+    @Param({"0", "10", "100", "1000"})
+    private int contacts;
+
+    private BenchmarkFixtures fixtures;
+    private AccountService accountService;
+
+    private Integer userId;
+
+    @Setup
+    public void setUp() {
+        fixtures = new BenchmarkFixtures();
+        accountService = fixtures.getBean(AccountService.class);
+
+        User user = fixtures.createUser(ACCOUNTS_PER_USER, BigDecimal.ZERO);
+        fixtures.addContacts(user, contacts, ACCOUNTS_PER_USER);
+
+        userId = user.getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixtures.close();
+    }
+
+    @Benchmark
+    public List<ReceiversAccountsResponseDTO> findAccountsForCurrentUserAndHisContacts() {
+        return accountService.findAccountsForCurrentUserAndHisContacts(userId);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AccountServiceBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
@@ -0,0 +1,178 @@
+package com.payMyBuddy.benchmark;
+
+import com.payMyBuddy.Application;
+import com.payMyBuddy.model.Account;
+import com.payMyBuddy.model.Transaction;
+import com.payMyBuddy.model.TransactionType;
+import com.payMyBuddy.model.User;
+import com.payMyBuddy.repository.AccountRepository;
+import com.payMyBuddy.repository.TransactionRepository;
+import com.payMyBuddy.repository.UserRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Application context of the benchmarks, on the in-memory database of the "benchmark" profile, and the data they read.
+ * Rows are written straight through the repositories : the services would hash a password per user,
+ * all of them share {@link #PASSWORD} hashed once.
+ */
+final class BenchmarkFixtures implements AutoCloseable {
+
+    /**
+     * The password of every user created by the fixtures.
+     */
+    static final String PASSWORD = "123123";
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final ConfigurableApplicationContext context;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final String encodedPassword;
+
+    private int users;
+
+    BenchmarkFixtures(String... additionalProfiles) {
+        // started from a main method, devtools would restart it in a new class loader without its arguments
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        context = new SpringApplicationBuilder(Application.class)
+                .profiles("benchmark")
+                .profiles(additionalProfiles)
+                .logStartupInfo(false)
+                .run();
+
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        userRepository = context.getBean(UserRepository.class);
+        accountRepository = context.getBean(AccountRepository.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+        encodedPassword = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * The port the application listens on.
+     *
+     * @return the port
+     */
+    int getPort() {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    /**
+     * Create a user owning the given number of accounts, all credited with the given balance.
+     *
+     * @param accounts the number of accounts
+     * @param balance  the balance of each account
+     * @return the user, with his accounts
+     */
+    User createUser(int accounts, BigDecimal balance) {
+        return transactionTemplate.execute(status -> {
+            int index = ++users;
+
+            User user = new User();
+            user.setUsername("user" + index);
+            user.setEmail("user" + index + "@benchmark.com");
+            user.setPassword(encodedPassword);
+
+            for (int i = 1; i <= accounts; i++) {
+                Account account = new Account();
+                account.setUser(user);
+                account.setName("Account " + i);
+                account.setBalance(balance);
+                account.setCreatedAt(Instant.now());
+                user.getAccounts().add(account);
+            }
+
+            return userRepository.save(user);
+        });
+    }
+
+    /**
+     * Add contacts to the user, each of them owning the given number of accounts.
+     *
+     * @param user     the user
+     * @param contacts the number of contacts
+     * @param accounts the number of accounts of each contact
+     */
+    void addContacts(User user, int contacts, int accounts) {
+        List<User> created = new ArrayList<>(contacts);
+        for (int i = 0; i < contacts; i++) {
+            created.add(createUser(accounts, BigDecimal.ZERO));
+        }
+
+        addContacts(user, created);
+    }
+
+    /**
+     * Add existing users to the contacts of the user, none of them being already a contact.
+     *
+     * @param user     the user
+     * @param contacts the contacts
+     */
+    void addContacts(User user, List<User> contacts) {
+        transactionTemplate.executeWithoutResult(status -> {
+            User managed = userRepository.findById(user.getId()).orElseThrow();
+            contacts.forEach(contact -> managed.addContact(userRepository.findById(contact.getId()).orElseThrow()));
+        });
+    }
+
+    /**
+     * Insert a history of transfers going back and forth between two accounts, one second apart,
+     * in chunks committed one after the other to keep the persistence context small.
+     *
+     * @param first  the first account
+     * @param second the second account
+     * @param size   the number of transfers
+     */
+    void createHistory(Account first, Account second, int size) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+        for (int start = 0; start < size; start += CHUNK_SIZE) {
+            int from = start;
+            int to = Math.min(size, start + CHUNK_SIZE);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                Account firstReference = accountRepository.getReferenceById(first.getId());
+                Account secondReference = accountRepository.getReferenceById(second.getId());
+                TransactionType type = first.getUser().getId().equals(second.getUser().getId())
+                        ? TransactionType.SELF_TRANSFER
+                        : TransactionType.BENEFICIARY_TRANSFER;
+
+                List<Transaction> transactions = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    boolean forth = i % 2 == 0;
+                    transactions.add(new Transaction(
+                            null,
+                            forth ? firstReference : secondReference,
+                            forth ? secondReference : firstReference,
+                            BigDecimal.ONE,
+                            "Transfer " + i,
+                            type,
+                            now.minusSeconds(i)
+                    ));
+                }
+                transactionRepository.saveAll(transactions);
+            });
+        }
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,325 @@
+package com.payMyBuddy.benchmark;
+
+import com.payMyBuddy.Application;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Synthetic data at production scale : users with one to a few accounts, a power-law contact graph and a history
+ * of transfers, streamed chunk by chunk with multi-row inserts. Every user gets {@link BenchmarkFixtures#PASSWORD}.
+ * <p>
+ * Each user only picks contacts among the users generated before him, so that a chunk never references rows
+ * that are not written yet and the first users end up as the hubs of the graph. Ids are assigned here, after the
+ * existing rows, and the pooled transaction id generator is moved past them. As for the accounts that predate the
+ * ledger (V4__seed_balance_snapshots.sql), the ledger of each account starts from a snapshot of its generated balance.
+ * <p>
+ * Run with : mvn -P benchmarks test-compile exec:exec@generate [-Dgenerator.args="users=1000000 --spring.datasource.url=..."]
+ * <p>
+ * It writes to the database of application.properties unless told otherwise with --spring.* arguments,
+ * and takes the following arguments, all optional :
+ * <ul>
+ *     <li>users : number of users, 10000 by default</li>
+ *     <li>accounts : maximum number of accounts per user, 3 by default</li>
+ *     <li>contacts : maximum number of contacts picked by a user, 500 by default</li>
+ *     <li>contacts-exponent : exponent of the power law of the contacts picked by a user, 2.5 by default</li>
+ *     <li>transactions : mean number of transfers sent by a user, 20 by default</li>
+ *     <li>history : period the transfers are spread over, 365d by default</li>
+ *     <li>batch-size : rows per insert statement, 1000 by default</li>
+ *     <li>seed : seed of the random generator, 42 by default</li>
+ * </ul>
+ */
+public class DataGenerator {
+
+    private static final String SCHEMA = "pay_my_buddy.";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String encodedPassword;
+
+    /**
+     * Instantiates a new Data generator.
+     *
+     * @param jdbcTemplate       the jdbc template of the target database
+     * @param transactionManager the transaction manager
+     * @param passwordEncoder    the password encoder
+     */
+    DataGenerator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, PasswordEncoder passwordEncoder) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.encodedPassword = passwordEncoder.encode(BenchmarkFixtures.PASSWORD);
+    }
+
+    public static void main(String[] args) {
+        // started from a main method, devtools would restart it in a new class loader without its arguments
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        String[] springArguments = Arrays.stream(args).filter(arg -> arg.startsWith("--")).toArray(String[]::new);
+        Settings settings = Settings.from(Arrays.stream(args)
+                .filter(arg -> !arg.startsWith("--"))
+                .map(arg -> arg.split("=", 2))
+                .collect(Collectors.toMap(pair -> pair[0], pair -> pair.length > 1 ? pair[1] : "")));
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .profiles("generator")
+                .logStartupInfo(false)
+                .run(springArguments)) {
+
+            new DataGenerator(
+                    context.getBean(JdbcTemplate.class),
+                    context.getBean(PlatformTransactionManager.class),
+                    context.getBean(PasswordEncoder.class)
+            ).generate(settings);
+        }
+    }
+
+    /**
+     * Generate the users, accounts, contacts and transactions, one chunk of users per database transaction.
+     *
+     * @param settings the settings
+     * @return the range of the generated users
+     */
+    Result generate(Settings settings) {
+        long start = System.nanoTime();
+        Random random = new Random(settings.seed());
+
+        int firstUserId = nextId("users");
+        int firstAccountId = nextId("accounts");
+        int[] transactionId = {nextId("transactions")};
+
+        // first account and number of accounts of every user, to address the accounts of his contacts
+        int[] firstAccounts = new int[settings.users()];
+        byte[] accountCounts = new byte[settings.users()];
+        int nextAccountId = firstAccountId;
+        long contactRows = 0;
+        long transactionRows = 0;
+
+        for (int chunkStart = 0; chunkStart < settings.users(); chunkStart += settings.batchSize()) {
+            int chunkEnd = Math.min(settings.users(), chunkStart + settings.batchSize());
+
+            Rows users = new Rows(SCHEMA + "users (id, username, email, password)");
+            Rows accounts = new Rows(SCHEMA + "accounts (id, user_id, balance, name, created_at, version)");
+            Rows contacts = new Rows(SCHEMA + "user_contacts (user_id, contact_id)");
+            Rows transactions = new Rows(
+                    SCHEMA + "transactions (id, sender_account_id, receiver_account_id, amount, description, type, created_at)"
+            );
+
+            for (int index = chunkStart; index < chunkEnd; index++) {
+                int userId = firstUserId + index;
+                users.add(userId, "user" + userId, "user" + userId + "@generated.com", encodedPassword);
+
+                firstAccounts[index] = nextAccountId;
+                accountCounts[index] = (byte) (1 + random.nextInt(settings.accounts()));
+                for (int i = 0; i < accountCounts[index]; i++) {
+                    accounts.add(
+                            nextAccountId++, userId, amount(random, 100_000), "Account " + (i + 1),
+                            timestamp(random, settings.history()), 0L
+                    );
+                }
+
+                // the relation is mutual, one row for each side
+                Set<Integer> picked = pickContacts(random, index, settings);
+                for (Integer contactIndex : picked) {
+                    contacts.add(userId, firstUserId + contactIndex);
+                    contacts.add(firstUserId + contactIndex, userId);
+                }
+
+                int sent = (int) Math.round(-settings.transactions() * Math.log(1 - random.nextDouble()));
+                List<Integer> contactIndexes = new ArrayList<>(picked);
+                for (int i = 0; i < sent; i++) {
+                    int sender = firstAccounts[index] + random.nextInt(accountCounts[index]);
+                    int receiver;
+                    String type;
+                    if (contactIndexes.isEmpty() || (accountCounts[index] > 1 && random.nextInt(5) == 0)) {
+                        if (accountCounts[index] == 1) {
+                            break;
+                        }
+                        // any other account of his own
+                        int offset = sender - firstAccounts[index] + 1 + random.nextInt(accountCounts[index] - 1);
+                        receiver = firstAccounts[index] + offset % accountCounts[index];
+                        type = "SELF_TRANSFER";
+                    } else {
+                        int contactIndex = contactIndexes.get(random.nextInt(contactIndexes.size()));
+                        receiver = firstAccounts[contactIndex] + random.nextInt(accountCounts[contactIndex]);
+                        type = "BENEFICIARY_TRANSFER";
+                    }
+                    transactions.add(
+                            transactionId[0]++, sender, receiver, amount(random, 500), "Transfer", type,
+                            timestamp(random, settings.history())
+                    );
+                }
+            }
+
+            contactRows += contacts.size();
+            transactionRows += transactions.size();
+
+            transactionTemplate.executeWithoutResult(status -> {
+                users.insert(settings.batchSize());
+                accounts.insert(settings.batchSize());
+                contacts.insert(settings.batchSize());
+                transactions.insert(settings.batchSize());
+            });
+
+            if (chunkEnd % (settings.batchSize() * 100) == 0 || chunkEnd == settings.users()) {
+                System.out.printf("%,d / %,d users%n", chunkEnd, settings.users());
+            }
+        }
+
+        int lastAccountId = nextAccountId - 1;
+        transactionTemplate.executeWithoutResult(status -> {
+            // pooled generator : the next block of 50 transaction ids ends at next_val
+            jdbcTemplate.update("DELETE FROM " + SCHEMA + "id_generators WHERE sequence_name = 'transactions'");
+            jdbcTemplate.update(
+                    "INSERT INTO " + SCHEMA + "id_generators (sequence_name, next_val) "
+                            + "SELECT 'transactions', COALESCE(MAX(id), 0) + 50 FROM " + SCHEMA + "transactions"
+            );
+
+            // the generated balances have no ledger history, the ledger starts from a snapshot of them
+            jdbcTemplate.update(
+                    "INSERT INTO " + SCHEMA + "balance_snapshots (account_id, balance, account_version, created_at) "
+                            + "SELECT id, balance, version, CURRENT_TIMESTAMP(6) FROM " + SCHEMA + "accounts "
+                            + "WHERE id BETWEEN ? AND ?",
+                    firstAccountId, lastAccountId
+            );
+        });
+
+        Result result = new Result(firstUserId, settings.users());
+        System.out.printf("%,d users, %,d accounts, %,d contact rows and %,d transactions generated in %s%n",
+                settings.users(), lastAccountId - firstAccountId + 1, contactRows, transactionRows,
+                Duration.ofNanos(System.nanoTime() - start).truncatedTo(ChronoUnit.SECONDS));
+        return result;
+    }
+
+    /**
+     * Number of contacts drawn from a truncated power law, at least one, then picked uniformly among the users
+     * generated before this one.
+     */
+    private static Set<Integer> pickContacts(Random random, int index, Settings settings) {
+        double degree = Math.pow(1 - random.nextDouble(), -1 / (settings.contactsExponent() - 1));
+        int count = (int) Math.min(Math.min(Math.floor(degree), settings.contacts()), index);
+
+        Set<Integer> picked = new LinkedHashSet<>();
+        while (picked.size() < count) {
+            picked.add(random.nextInt(index));
+        }
+        return picked;
+    }
+
+    private int nextId(String table) {
+        Integer max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + SCHEMA + table, Integer.class);
+        return max == null ? 1 : max + 1;
+    }
+
+    private static BigDecimal amount(Random random, int max) {
+        return BigDecimal.valueOf(100 + random.nextInt(max * 100 - 99), 2);
+    }
+
+    private static Timestamp timestamp(Random random, Duration history) {
+        long seconds = (long) (random.nextDouble() * history.toSeconds());
+        return Timestamp.from(Instant.now().minusSeconds(seconds).truncatedTo(ChronoUnit.MICROS));
+    }
+
+    /**
+     * Rows of one table, written with statements of up to batchSize rows each.
+     */
+    private final class Rows {
+
+        private final String table;
+        private final List<Object[]> values = new ArrayList<>();
+
+        private Rows(String table) {
+            this.table = table;
+        }
+
+        private void add(Object... row) {
+            values.add(row);
+        }
+
+        private int size() {
+            return values.size();
+        }
+
+        private void insert(int batchSize) {
+            for (int from = 0; from < values.size(); from += batchSize) {
+                List<Object[]> rows = values.subList(from, Math.min(values.size(), from + batchSize));
+                String placeholders = "(" + String.join(", ", Collections.nCopies(rows.getFirst().length, "?")) + ")";
+                String tuples = String.join(", ", Collections.nCopies(rows.size(), placeholders));
+
+                jdbcTemplate.update(
+                        "INSERT INTO " + table + " VALUES " + tuples,
+                        rows.stream().flatMap(Arrays::stream).toArray()
+                );
+            }
+        }
+    }
+
+    /**
+     * The generated users, with consecutive ids.
+     *
+     * @param firstUserId the id of the first generated user
+     * @param users       the number of generated users
+     */
+    record Result(int firstUserId, int users) {
+    }
+
+    /**
+     * The settings of a generation.
+     */
+    record Settings(
+            int users,
+            int accounts,
+            int contacts,
+            double contactsExponent,
+            double transactions,
+            Duration history,
+            int batchSize,
+            long seed
+    ) {
+
+        /**
+         * Settings from name=value arguments, the missing ones taking their default value.
+         *
+         * @param arguments the arguments
+         * @return the settings
+         */
+        static Settings from(Map<String, String> arguments) {
+            Settings settings = new Settings(
+                    Integer.parseInt(arguments.getOrDefault("users", "10000")),
+                    Integer.parseInt(arguments.getOrDefault("accounts", "3")),
+                    Integer.parseInt(arguments.getOrDefault("contacts", "500")),
+                    Double.parseDouble(arguments.getOrDefault("contacts-exponent", "2.5")),
+                    Double.parseDouble(arguments.getOrDefault("transactions", "20")),
+                    DurationStyle.detectAndParse(arguments.getOrDefault("history", "365d")),
+                    Integer.parseInt(arguments.getOrDefault("batch-size", "1000")),
+                    Long.parseLong(arguments.getOrDefault("seed", "42"))
+            );
+
+            if (settings.accounts() < 1 || settings.accounts() > Byte.MAX_VALUE) {
+                throw new IllegalArgumentException("accounts must be between 1 and " + Byte.MAX_VALUE);
+            }
+            if (settings.contactsExponent() <= 1) {
+                throw new IllegalArgumentException("contacts-exponent must be greater than 1");
+            }
+            return settings;
+        }
+    }
+}
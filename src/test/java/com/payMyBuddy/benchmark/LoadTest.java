@@ -0,0 +1,358 @@
+package com.payMyBuddy.benchmark;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Load test of the application over HTTP : virtual users log in, then go through the dashboard, the transactions page
+ * and a transfer a few times before starting a new session. The application runs in this JVM on the in-memory
+ * database of the "benchmark" profile, with the caches and the instrumentation of production ("loadtest" profile),
+ * seeded by the {@link DataGenerator}.
+ * <p>
+ * Throughput, p50 / p99 latency and error rate are reported per endpoint, and written as CSV with report=file.csv
+ * to compare two versions of the application, or the two request thread modes :
+ * <pre>
+ * mvn -P benchmarks test-compile exec:exec@loadtest -Dloadtest.args="virtual-users=1000 threads=platform report=target/platform.csv"
+ * mvn -P benchmarks test-compile exec:exec@loadtest -Dloadtest.args="virtual-users=1000 threads=virtual report=target/virtual.csv"
+ * </pre>
+ * <p>
+ * Run with : mvn -P benchmarks test-compile exec:exec@loadtest [-Dloadtest.args="users=1000 virtual-users=32 duration=2m"]
+ * <p>
+ * Arguments, all optional, on top of the ones of the {@link DataGenerator} that describe the dataset :
+ * <ul>
+ *     <li>virtual-users : number of concurrent sessions, 16 by default</li>
+ *     <li>threads : request threads of the application, platform (the Tomcat pool) or virtual, platform by default</li>
+ *     <li>pages : dashboard / transactions / transfer rounds per session, 5 by default</li>
+ *     <li>warmup : time spent before measuring, 10s by default</li>
+ *     <li>duration : time measured, 30s by default</li>
+ *     <li>report : CSV file the results are written to</li>
+ * </ul>
+ */
+public class LoadTest {
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+    private static final Pattern SESSION = Pattern.compile("JSESSIONID=([^;]+)");
+    private static final int SAMPLE_SIZE = 1000;
+
+    private final Map<String, String> arguments;
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+    private final HttpClient client = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private URI baseUri;
+    private List<Customer> customers;
+
+    private volatile boolean recording;
+    private volatile boolean running = true;
+
+    private LoadTest(Map<String, String> arguments) {
+        this.arguments = arguments;
+        for (String endpoint : List.of(
+                "GET /login", "POST /processLogin", "GET /dashboard", "GET /transactions", "POST /createTransaction"
+        )) {
+            stats.put(endpoint, new EndpointStats(endpoint));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> arguments = Arrays.stream(args)
+                .map(arg -> arg.split("=", 2))
+                .collect(Collectors.toMap(pair -> pair[0], pair -> pair.length > 1 ? pair[1] : ""));
+
+        new LoadTest(arguments).run();
+    }
+
+    private void run() throws Exception {
+        int virtualUsers = intArgument("virtual-users", 16);
+        Duration warmup = DurationStyle.detectAndParse(arguments.getOrDefault("warmup", "10s"));
+        Duration duration = DurationStyle.detectAndParse(arguments.getOrDefault("duration", "30s"));
+
+        String threads = arguments.getOrDefault("threads", "platform");
+        String[] profiles = switch (threads) {
+            case "platform" -> new String[]{"loadtest"};
+            case "virtual" -> new String[]{"loadtest", "virtual-threads"};
+            default -> throw new IllegalArgumentException("threads must be platform or virtual");
+        };
+
+        try (BenchmarkFixtures fixtures = new BenchmarkFixtures(profiles)) {
+            JdbcTemplate jdbcTemplate = fixtures.getBean(JdbcTemplate.class);
+            DataGenerator.Result generated = new DataGenerator(
+                    jdbcTemplate,
+                    fixtures.getBean(PlatformTransactionManager.class),
+                    fixtures.getBean(PasswordEncoder.class)
+            ).generate(DataGenerator.Settings.from(arguments));
+
+            customers = sample(jdbcTemplate, generated);
+            baseUri = URI.create("http://localhost:" + fixtures.getPort());
+
+            // a virtual thread per session : thousands of them cost the client nothing, the server is what is measured
+            ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+            for (int i = 0; i < virtualUsers; i++) {
+                executor.submit(this::virtualUser);
+            }
+
+            System.out.printf("Warming up for %s with %d virtual users on %s request threads...%n", warmup, virtualUsers, threads);
+            Thread.sleep(warmup.toMillis());
+
+            recording = true;
+            long start = System.nanoTime();
+            System.out.printf("Measuring for %s...%n", duration);
+            Thread.sleep(duration.toMillis());
+            recording = false;
+            long elapsed = System.nanoTime() - start;
+
+            running = false;
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+
+            report(elapsed);
+        }
+    }
+
+    /**
+     * Log-in details and transfer targets of a sample of the generated users.
+     */
+    private List<Customer> sample(JdbcTemplate jdbcTemplate, DataGenerator.Result generated) {
+        Random random = new Random(0);
+        List<Customer> sampled = new ArrayList<>();
+
+        for (int i = 0; i < Math.min(SAMPLE_SIZE, generated.users()); i++) {
+            int userId = generated.firstUserId() + random.nextInt(generated.users());
+
+            String email = jdbcTemplate.queryForObject(
+                    "SELECT email FROM pay_my_buddy.users WHERE id = ?", String.class, userId
+            );
+            List<Integer> accounts = jdbcTemplate.queryForList(
+                    "SELECT id FROM pay_my_buddy.accounts WHERE user_id = ? ORDER BY id", Integer.class, userId
+            );
+            List<Integer> receivers = new ArrayList<>(accounts.subList(1, accounts.size()));
+            receivers.addAll(jdbcTemplate.queryForList(
+                    "SELECT a.id FROM pay_my_buddy.user_contacts c JOIN pay_my_buddy.accounts a ON a.user_id = c.contact_id "
+                            + "WHERE c.user_id = ?",
+                    Integer.class, userId
+            ));
+
+            // a user with a single account and no contact has no one to send money to
+            if (!receivers.isEmpty()) {
+                sampled.add(new Customer(email, accounts.getFirst(), receivers));
+            }
+        }
+        return sampled;
+    }
+
+    private void virtualUser() {
+        while (running) {
+            Customer customer = customers.get(ThreadLocalRandom.current().nextInt(customers.size()));
+            try {
+                session(customer);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                // already counted as an error of the endpoint, the next session starts from scratch
+            }
+        }
+    }
+
+    private void session(Customer customer) throws IOException, InterruptedException {
+        Session session = new Session();
+
+        HttpResponse<String> login = send("GET /login", session, get("/login"), 200);
+        send("POST /processLogin", session, post("/processLogin", Map.of(
+                "email", customer.email(),
+                "password", BenchmarkFixtures.PASSWORD,
+                "_csrf", csrf(login)
+        )), 302);
+
+        int pages = intArgument("pages", 5);
+        for (int page = 0; page < pages && running; page++) {
+            send("GET /dashboard", session, get("/dashboard"), 200);
+            HttpResponse<String> transactions = send("GET /transactions", session, get("/transactions"), 200);
+
+            List<Integer> receivers = customer.receiverAccountIds();
+            Integer receiver = receivers.get(ThreadLocalRandom.current().nextInt(receivers.size()));
+            // the generated balances are large enough for every transfer to be accepted
+            send("POST /createTransaction", session, post("/createTransaction", Map.of(
+                    "senderAccountId", customer.accountId().toString(),
+                    "receiverAccountId", receiver.toString(),
+                    "amount", "0.01",
+                    "description", "Load test",
+                    "_csrf", csrf(transactions)
+            )), 302);
+        }
+    }
+
+    private HttpResponse<String> send(String endpoint, Session session, HttpRequest.Builder request, int expectedStatus)
+            throws IOException, InterruptedException {
+
+        if (session.id != null) {
+            request.header("Cookie", "JSESSIONID=" + session.id);
+        }
+
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = client.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            record(endpoint, System.nanoTime() - start, false);
+            throw e;
+        }
+        long nanos = System.nanoTime() - start;
+
+        // a redirection to the login page is the way Spring Security reports an authentication failure
+        boolean success = response.statusCode() == expectedStatus
+                && !response.headers().firstValue("Location").orElse("").contains("/login");
+        record(endpoint, nanos, success);
+        if (!success) {
+            throw new IllegalStateException(endpoint + " : " + response.statusCode());
+        }
+
+        response.headers().allValues("Set-Cookie").forEach(cookie -> {
+            Matcher matcher = SESSION.matcher(cookie);
+            if (matcher.find()) {
+                session.id = matcher.group(1);
+            }
+        });
+        return response;
+    }
+
+    private void record(String endpoint, long nanos, boolean success) {
+        if (recording) {
+            stats.get(endpoint).record(nanos, success);
+        }
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).GET();
+    }
+
+    private HttpRequest.Builder post(String path, Map<String, String> form) {
+        String body = form.entrySet().stream()
+                .map(entry -> URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8)
+                        + "=" + URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private void report(long elapsedNanos) throws IOException {
+        double seconds = elapsedNanos / 1e9;
+
+        System.out.printf("%n%-26s %10s %10s %10s %10s %10s %8s%n",
+                "Endpoint", "Requests", "Req/s", "p50 (ms)", "p99 (ms)", "Max (ms)", "Errors");
+        for (EndpointStats endpoint : stats.values()) {
+            System.out.printf("%-26s %10d %10.1f %10.2f %10.2f %10.2f %7.2f%%%n",
+                    endpoint.name, endpoint.count, endpoint.count / seconds,
+                    endpoint.percentile(0.50), endpoint.percentile(0.99), endpoint.percentile(1.0),
+                    endpoint.errorRate() * 100);
+        }
+
+        String report = arguments.get("report");
+        if (report != null) {
+            Path path = Path.of(report);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(path))) {
+                writer.println("endpoint,requests,throughput,p50_ms,p99_ms,max_ms,error_rate");
+                for (EndpointStats endpoint : stats.values()) {
+                    writer.printf(Locale.ROOT, "%s,%d,%.1f,%.2f,%.2f,%.2f,%.4f%n",
+                            endpoint.name, endpoint.count, endpoint.count / seconds,
+                            endpoint.percentile(0.50), endpoint.percentile(0.99), endpoint.percentile(1.0),
+                            endpoint.errorRate());
+                }
+            }
+            System.out.printf("%nReport written to %s%n", path.toAbsolutePath());
+        }
+    }
+
+    private int intArgument(String name, int defaultValue) {
+        return Integer.parseInt(arguments.getOrDefault(name, String.valueOf(defaultValue)));
+    }
+
+    private static String csrf(HttpResponse<String> page) {
+        Matcher matcher = CSRF.matcher(page.body());
+        if (!matcher.find()) {
+            throw new IllegalStateException("Jeton CSRF absent de " + page.uri());
+        }
+        return matcher.group(1);
+    }
+
+    private record Customer(String email, Integer accountId, List<Integer> receiverAccountIds) {
+    }
+
+    private static final class Session {
+        private String id;
+    }
+
+    /**
+     * Latencies of one endpoint, kept whole to compute exact percentiles at the end of the run.
+     */
+    private static final class EndpointStats {
+
+        private final String name;
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+
+        private EndpointStats(String name) {
+            this.name = name;
+        }
+
+        private synchronized void record(long nanos, boolean success) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        private synchronized double percentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * count) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+
+        private synchronized double errorRate() {
+            return count == 0 ? 0 : (double) errors / count;
+        }
+    }
+}
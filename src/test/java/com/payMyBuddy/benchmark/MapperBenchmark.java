@@ -0,0 +1,130 @@
+package com.payMyBuddy.benchmark;
+
+import com.payMyBuddy.dto.account.AccountResponseDTO;
+import com.payMyBuddy.dto.transaction.TransactionCreateDTO;
+import com.payMyBuddy.dto.transaction.TransactionResponseDTO;
+import com.payMyBuddy.dto.user.UserResponseDTO;
+import com.payMyBuddy.mapper.AccountMapper;
+import com.payMyBuddy.mapper.AccountMapperImpl;
+import com.payMyBuddy.mapper.TransactionMapper;
+import com.payMyBuddy.mapper.TransactionMapperImpl;
+import com.payMyBuddy.mapper.UserMapper;
+import com.payMyBuddy.mapper.UserMapperImpl;
+import com.payMyBuddy.model.Account;
+import com.payMyBuddy.model.Transaction;
+import com.payMyBuddy.model.TransactionType;
+import com.payMyBuddy.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the MapStruct mappings alone, on entities built in memory : no database, no Spring context.
+ * <p>
+ * Run with : mvn -P benchmarks test-compile exec:exec -Djmh.args=MapperBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int contacts;
+
+    private AccountMapper accountMapper;
+    private TransactionMapper transactionMapper;
+    private UserMapper userMapper;
+
+    private User user;
+    private Account account;
+    private Transaction transaction;
+    private TransactionCreateDTO transactionCreateDTO;
+
+    @Setup
+    public void setUp() {
+        accountMapper = new AccountMapperImpl();
+        transactionMapper = new TransactionMapperImpl();
+        userMapper = new UserMapperImpl();
+        // injected by Spring in the application
+        ReflectionTestUtils.setField(userMapper, "accountMapper", accountMapper);
+
+        user = user(0);
+        for (int i = 1; i <= contacts; i++) {
+            user.addContact(user(i));
+        }
+
+        account = user.getAccounts().iterator().next();
+        Account receiverAccount = user.getContacts().iterator().next().getAccounts().iterator().next();
+
+        transaction = new Transaction(
+                1, account, receiverAccount, BigDecimal.TEN, "Benchmark", TransactionType.BENEFICIARY_TRANSFER, Instant.now()
+        );
+        transactionCreateDTO = new TransactionCreateDTO(account.getId(), receiverAccount.getId(), BigDecimal.TEN, "Benchmark");
+    }
+
+    @Benchmark
+    public AccountResponseDTO toAccountResponseDTO() {
+        return accountMapper.toAccountResponseDTO(account);
+    }
+
+    @Benchmark
+    public TransactionResponseDTO toTransactionResponseDTO() {
+        return transactionMapper.toResponseDTO(transaction);
+    }
+
+    @Benchmark
+    public Transaction toTransactionEntityFromCreateDTO() {
+        return transactionMapper.toEntityFromCreateDTO(transactionCreateDTO);
+    }
+
+    @Benchmark
+    public UserResponseDTO toUserResponseDTO() {
+        return userMapper.toUserResponseDTO(user);
+    }
+
+    private static User user(int id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setEmail("user" + id + "@benchmark.com");
+        user.setPassword("{noop}benchmark");
+
+        for (int i = 1; i <= 2; i++) {
+            Account account = new Account();
+            account.setId(id * 2 + i);
+            account.setUser(user);
+            account.setName("Account " + i);
+            account.setBalance(BigDecimal.TEN);
+            account.setCreatedAt(Instant.now());
+            user.getAccounts().add(account);
+        }
+
+        return user;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MapperBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
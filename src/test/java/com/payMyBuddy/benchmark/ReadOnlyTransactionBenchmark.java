@@ -0,0 +1,98 @@
+package com.payMyBuddy.benchmark;
+
+import com.payMyBuddy.model.Account;
+import com.payMyBuddy.model.Transaction;
+import com.payMyBuddy.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of loading a whole history as entities, in a read-write transaction (a snapshot per entity,
+ * dirty-checked by the flush at commit) and in a read-only one (neither).
+ * The allocations per operation, the memory side, are given by the gc profiler.
+ * <p>
+ * Run with : mvn -P benchmarks test-compile exec:exec -Djmh.args="ReadOnlyTransactionBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadOnlyTransactionBenchmark {
+
+    // the whole history as entities, where the application reads its pages as dtos
+    private static final String HISTORY = "SELECT t FROM Transaction t "
+            + "WHERE t.senderAccount.user.id = :userId OR t.receiverAccount.user.id = :userId";
+
+    @Param({"1000", "10000", "50000"})
+    private int historySize;
+
+    @Param({"true", "false"})
+    private boolean readOnly;
+
+    private BenchmarkFixtures fixtures;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+
+    private Integer userId;
+
+    @Setup
+    public void setUp() {
+        fixtures = new BenchmarkFixtures();
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(fixtures.getBean(EntityManagerFactory.class));
+        transactionTemplate = new TransactionTemplate(fixtures.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(readOnly);
+
+        User user = fixtures.createUser(1, BigDecimal.ZERO);
+        User contact = fixtures.createUser(1, BigDecimal.ZERO);
+        Account account = user.getAccounts().iterator().next();
+        Account contactAccount = contact.getAccounts().iterator().next();
+
+        fixtures.createHistory(account, contactAccount, historySize);
+
+        userId = user.getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixtures.close();
+    }
+
+    @Benchmark
+    public int loadHistory() {
+        return transactionTemplate.execute(status -> entityManager.createQuery(HISTORY, Transaction.class)
+                .setParameter("userId", userId)
+                .getResultList()
+                .size()
+        );
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ReadOnlyTransactionBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
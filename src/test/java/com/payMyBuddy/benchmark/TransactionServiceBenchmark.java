@@ -0,0 +1,97 @@
+package com.payMyBuddy.benchmark;
+
+import com.payMyBuddy.dto.transaction.TransactionCreateDTO;
+import com.payMyBuddy.dto.transaction.TransactionResponseDTO;
+import com.payMyBuddy.model.Account;
+import com.payMyBuddy.model.User;
+import com.payMyBuddy.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a transfer, and of reading the history of a user per size of that history.
+ * <p>
+ * Run with : mvn -P benchmarks test-compile exec:exec -Djmh.args=TransactionServiceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionServiceBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int historySize;
+
+    private BenchmarkFixtures fixtures;
+    private TransactionService transactionService;
+
+    private Integer userId;
+    private TransactionCreateDTO forth;
+    private TransactionCreateDTO back;
+    private boolean forward;
+
+    @Setup
+    public void setUp() {
+        fixtures = new BenchmarkFixtures();
+        transactionService = fixtures.getBean(TransactionService.class);
+
+        User user = fixtures.createUser(1, new BigDecimal("1000000.00"));
+        User contact = fixtures.createUser(1, new BigDecimal("1000000.00"));
+        Account account = user.getAccounts().iterator().next();
+        Account contactAccount = contact.getAccounts().iterator().next();
+
+        fixtures.createHistory(account, contactAccount, historySize);
+
+        userId = user.getId();
+        // back and forth, so that the balances never run out whatever the number of invocations
+        forth = new TransactionCreateDTO(account.getId(), contactAccount.getId(), BigDecimal.ONE, "Benchmark");
+        back = new TransactionCreateDTO(contactAccount.getId(), account.getId(), BigDecimal.ONE, "Benchmark");
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixtures.close();
+    }
+
+    @Benchmark
+    public void createTransaction() {
+        forward = !forward;
+        transactionService.createTransaction(forward ? forth : back);
+    }
+
+    @Benchmark
+    public List<TransactionResponseDTO> findTransactionsForCurrentUser() {
+        return transactionService.findTransactionsForCurrentUser(userId, 0);
+    }
+
+    @Benchmark
+    public List<TransactionResponseDTO> findTransactionsForCurrentUser_firstPage() {
+        return transactionService.findTransactionsForCurrentUser(userId, TransactionService.DEFAULT_PAGE_SIZE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TransactionServiceBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
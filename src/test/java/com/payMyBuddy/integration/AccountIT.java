@@ -1,6 +1,11 @@
 package com.payMyBuddy.integration;
 
+import com.payMyBuddy.dto.account.AccountCreateDTO;
+import com.payMyBuddy.dto.account.BalanceUpdateDTO;
+import com.payMyBuddy.dto.account.ReceiversAccountsResponseDTO;
+import com.payMyBuddy.dto.user.ContactCreateDTO;
 import com.payMyBuddy.dto.user.UserCreateDTO;
+import com.payMyBuddy.exception.InsufficientBalanceException;
 import com.payMyBuddy.exception.ResourceNotFoundException;
 import com.payMyBuddy.model.Account;
 import com.payMyBuddy.model.User;
@@ -34,6 +39,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -232,7 +238,7 @@ public class AccountIT {
         Account updatedAccount = accountService.findAccountByIdInternalUse(targetAccount.getId());
 
         // Then
-        assertEquals(BigDecimal.valueOf(100), updatedAccount.getBalance());
+        assertEquals(new BigDecimal("100.00"), updatedAccount.getBalance());
     }
 
     @Test
@@ -263,4 +269,51 @@ public class AccountIT {
                 .andExpect(status().isOk())
                 .andExpect(model().attributeHasFieldErrors("updateBalance", "amount"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Débit d'un compte limité par son solde")
+    void debitBalanceAccount_isGuardedByBalance_test() {
+
+        // Given
+        Account account = accountRepository.findByUserId(user.getId()).iterator().next();
+        accountService.updateBalanceAccount(new BalanceUpdateDTO(account.getId(), new BigDecimal("100")));
+
+        // When
+        accountService.debitBalanceAccount(new BalanceUpdateDTO(account.getId(), new BigDecimal("60")));
+
+        // Then
+        assertThrows(
+                InsufficientBalanceException.class,
+                () -> accountService.debitBalanceAccount(new BalanceUpdateDTO(account.getId(), new BigDecimal("60")))
+        );
+        assertEquals(new BigDecimal("40.00"), accountService.findAccountByIdInternalUse(account.getId()).getBalance());
+    }
+
+    @Test
+    @DisplayName("Récupération des comptes de l'utilisateur et de ses bénéficiaires")
+    void findAccountsForCurrentUserAndHisContacts_success_test() {
+
+        // Given
+        UserCreateDTO createdContact = new UserCreateDTO();
+        createdContact.setEmail("contact@example.com");
+        createdContact.setUsername("contact");
+        createdContact.setPassword("123123");
+        createdContact.setConfirmPassword("123123");
+
+        userService.createUser(createdContact);
+        User contact = userService.findByUserEmailInternalUse(createdContact.getEmail());
+        accountService.createAccount(new AccountCreateDTO("Second Account"), contact.getId());
+
+        userService.createContact(user.getId(), new ContactCreateDTO(createdContact.getEmail()));
+
+        // When
+        List<ReceiversAccountsResponseDTO> result = accountService.findAccountsForCurrentUserAndHisContacts(user.getId());
+
+        // Then
+        assertEquals(2, result.size());
+        assertEquals("user", result.get(0).getOwnerName());
+        assertEquals(1, result.get(0).getAccounts().size());
+        assertEquals("contact", result.get(1).getOwnerName());
+        assertEquals(2, result.get(1).getAccounts().size());
+    }
+}
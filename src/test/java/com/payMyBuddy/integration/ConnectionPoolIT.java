@@ -0,0 +1,59 @@
+package com.payMyBuddy.integration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The production sizing with a database smaller than the throughput formula : 8 cores would call for 17 connections,
+ * the 30 connections of the server minus 2 reserved, shared by 4 instances, only leave 7.
+ */
+@SpringBootTest
+@TestPropertySource(
+        locations = "classpath:application-test.properties",
+        properties = {
+                "paymybuddy.datasource.pool.sizing.enabled=true",
+                "paymybuddy.datasource.pool.sizing.database-cores=8",
+                "paymybuddy.datasource.pool.sizing.effective-spindles=1",
+                "paymybuddy.datasource.pool.sizing.database-max-connections=30",
+                "paymybuddy.datasource.pool.sizing.reserved-connections=2",
+                "paymybuddy.datasource.pool.sizing.instances=4",
+                "paymybuddy.datasource.pool.warm-up.enabled=true"
+        }
+)
+public class ConnectionPoolIT {
+
+    @Autowired
+    private HikariDataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Pool de production - Taille fixe bornée par la capacité de la base")
+    void pool_shouldBeSizedFromTheDatabaseCapacity_test() {
+
+        // Then
+        assertEquals(7, dataSource.getMaximumPoolSize());
+        assertEquals(7, dataSource.getMinimumIdle());
+    }
+
+    @Test
+    @DisplayName("Préchauffage - Les connexions sont ouvertes avant la première requête")
+    void warmUp_shouldOpenEveryConnectionAtStartup_test() {
+
+        // Then
+        assertEquals(7, dataSource.getHikariPoolMXBean().getTotalConnections());
+
+        Gauge connections = meterRegistry.find("hikaricp.connections").gauge();
+        assertNotNull(connections);
+        assertEquals(7, connections.value());
+    }
+}
@@ -0,0 +1,171 @@
+package com.payMyBuddy.integration;
+
+import com.payMyBuddy.dto.account.AccountCreateDTO;
+import com.payMyBuddy.dto.account.BalanceReconciliationDTO;
+import com.payMyBuddy.dto.account.BalanceUpdateDTO;
+import com.payMyBuddy.dto.transaction.TransactionCreateDTO;
+import com.payMyBuddy.dto.user.UserCreateDTO;
+import com.payMyBuddy.model.Account;
+import com.payMyBuddy.model.LedgerEntry;
+import com.payMyBuddy.model.LedgerEntryType;
+import com.payMyBuddy.model.User;
+import com.payMyBuddy.repository.AccountRepository;
+import com.payMyBuddy.repository.BalanceSnapshotRepository;
+import com.payMyBuddy.repository.LedgerEntryRepository;
+import com.payMyBuddy.service.AccountService;
+import com.payMyBuddy.service.LedgerReconciliationJob;
+import com.payMyBuddy.service.LedgerService;
+import com.payMyBuddy.service.TransactionService;
+import com.payMyBuddy.service.UserService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Transactional
+public class LedgerIT {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private LedgerReconciliationJob ledgerReconciliationJob;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Account senderAccount;
+    private Account receiverAccount;
+
+    @BeforeEach
+    void setUp() {
+
+        // Given
+        UserCreateDTO createdUser = new UserCreateDTO();
+        createdUser.setEmail("ledger@example.com");
+        createdUser.setUsername("ledger");
+        createdUser.setPassword("123123");
+        createdUser.setConfirmPassword("123123");
+
+        userService.createUser(createdUser);
+        User user = userService.findByUserEmailInternalUse(createdUser.getEmail());
+
+        accountService.createAccount(new AccountCreateDTO("Ledger Account"), user.getId());
+
+        List<Account> accounts = accountRepository.findByUserId(user.getId()).stream()
+                .sorted(Comparator.comparing(Account::getId))
+                .toList();
+        senderAccount = accounts.get(0);
+        receiverAccount = accounts.get(1);
+    }
+
+    @Test
+    @DisplayName("Chaque mouvement de solde ajoute une écriture au grand livre")
+    void balanceMovements_shouldAppendLedgerEntries_test() throws Exception {
+
+        // When
+        accountService.updateBalanceAccount(new BalanceUpdateDTO(senderAccount.getId(), new BigDecimal("1000")));
+        transactionService.createTransaction(new TransactionCreateDTO(
+                senderAccount.getId(), receiverAccount.getId(), new BigDecimal("100"), "Single"
+        ));
+        transactionService.createTransactions(receiverAccount.getUser().getId(), List.of(
+                new TransactionCreateDTO(receiverAccount.getId(), senderAccount.getId(), new BigDecimal("30"), "Bulk")
+        ));
+        accountService.debitBalanceAccount(new BalanceUpdateDTO(senderAccount.getId(), new BigDecimal("10")));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then
+        List<LedgerEntry> entries = ledgerEntryRepository.findByAccountIdOrderByAccountVersionAscIdAsc(senderAccount.getId());
+        assertEquals(
+                List.of(LedgerEntryType.DEPOSIT, LedgerEntryType.TRANSFER_DEBIT, LedgerEntryType.TRANSFER_CREDIT, LedgerEntryType.WITHDRAWAL),
+                entries.stream().map(LedgerEntry::getType).toList()
+        );
+
+        BalanceReconciliationDTO sender = ledgerService.reconcileAccount(senderAccount.getId());
+        BalanceReconciliationDTO receiver = ledgerService.reconcileAccount(receiverAccount.getId());
+
+        assertTrue(sender.isConsistent());
+        assertEquals(0, new BigDecimal("920").compareTo(sender.getLedgerBalance()));
+        assertTrue(receiver.isConsistent());
+        assertEquals(0, new BigDecimal("70").compareTo(receiver.getLedgerBalance()));
+    }
+
+    @Test
+    @DisplayName("Le solde à une date est calculé depuis le dernier instantané")
+    void findBalanceAt_shouldStartFromLastSnapshot_test() throws Exception {
+
+        // Given
+        accountService.updateBalanceAccount(new BalanceUpdateDTO(senderAccount.getId(), new BigDecimal("1000")));
+        entityManager.flush();
+        entityManager.clear();
+        assertTrue(ledgerService.reconcileAccount(senderAccount.getId()).isConsistent());
+
+        Thread.sleep(2);
+        Instant afterSnapshot = Instant.now();
+        Thread.sleep(2);
+
+        transactionService.createTransaction(new TransactionCreateDTO(
+                senderAccount.getId(), receiverAccount.getId(), new BigDecimal("250"), "After snapshot"
+        ));
+        entityManager.flush();
+        entityManager.clear();
+
+        // When / Then
+        assertEquals(0, new BigDecimal("1000").compareTo(ledgerService.findBalanceAt(senderAccount.getId(), afterSnapshot)));
+        assertEquals(0, new BigDecimal("750").compareTo(ledgerService.findBalanceAt(senderAccount.getId(), Instant.now())));
+        assertTrue(balanceSnapshotRepository.findFirstByAccountIdOrderByAccountVersionDesc(senderAccount.getId()).isPresent());
+    }
+
+    @Test
+    @DisplayName("La réconciliation détecte un solde modifié hors du grand livre")
+    void reconcileAllAccounts_shouldDetectBalanceChangedOutsideTheLedger_test() {
+
+        // Given
+        accountService.updateBalanceAccount(new BalanceUpdateDTO(senderAccount.getId(), new BigDecimal("1000")));
+        assertEquals(0, ledgerReconciliationJob.reconcileAllAccounts());
+
+        // When : the row changed by another connection, the managed account knows nothing of it
+        accountRepository.creditBalance(senderAccount.getId(), new BigDecimal("5"));
+        entityManager.clear();
+
+        // Then
+        assertEquals(1, ledgerReconciliationJob.reconcileAllAccounts());
+
+        BalanceReconciliationDTO reconciliation = ledgerService.reconcileAccount(senderAccount.getId());
+        assertFalse(reconciliation.isConsistent());
+        assertEquals(0, new BigDecimal("1005").compareTo(reconciliation.getAccountBalance()));
+        assertEquals(0, new BigDecimal("1000").compareTo(reconciliation.getLedgerBalance()));
+    }
+}
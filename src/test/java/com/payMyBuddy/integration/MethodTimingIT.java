@@ -0,0 +1,75 @@
+package com.payMyBuddy.integration;
+
+import com.payMyBuddy.dto.user.UserCreateDTO;
+import com.payMyBuddy.exception.ResourceNotFoundException;
+import com.payMyBuddy.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Transactional
+public class MethodTimingIT {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Les appels de service sont chronométrés sans rendre leurs arguments")
+    void serviceCall_shouldBeTimedWithoutRenderingArguments_test() {
+
+        // Given : an argument that refuses to be rendered
+        UserCreateDTO createdUser = new UserCreateDTO() {
+            @Override
+            public String toString() {
+                throw new AssertionError("arguments must not be rendered");
+            }
+        };
+        createdUser.setEmail("timing@example.com");
+        createdUser.setUsername("timing");
+        createdUser.setPassword("123123");
+        createdUser.setConfirmPassword("123123");
+
+        long before = count("createUser", "none");
+
+        // When
+        userService.createUser(createdUser);
+
+        // Then
+        assertEquals(1, count("createUser", "none") - before);
+    }
+
+    @Test
+    @DisplayName("Les appels de service en erreur sont chronométrés avec leur exception")
+    void serviceCall_whenThrowing_shouldBeTimedWithItsException_test() {
+
+        // Given
+        long before = count("findByUserIdInternalUse", "ResourceNotFoundException");
+
+        // When
+        assertThrows(ResourceNotFoundException.class, () -> userService.findByUserIdInternalUse(-1));
+
+        // Then
+        assertEquals(1, count("findByUserIdInternalUse", "ResourceNotFoundException") - before);
+    }
+
+    private long count(String method, String exception) {
+        Timer timer = meterRegistry.find("method.timed")
+                .tag("class", "UserService")
+                .tag("method", method)
+                .tag("exception", exception)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
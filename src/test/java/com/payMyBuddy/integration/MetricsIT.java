@@ -0,0 +1,129 @@
+package com.payMyBuddy.integration;
+
+import com.payMyBuddy.dto.account.AccountCreateDTO;
+import com.payMyBuddy.dto.account.BalanceUpdateDTO;
+import com.payMyBuddy.dto.transaction.TransactionCreateDTO;
+import com.payMyBuddy.dto.user.UserCreateDTO;
+import com.payMyBuddy.exception.InsufficientBalanceException;
+import com.payMyBuddy.model.Account;
+import com.payMyBuddy.repository.AccountRepository;
+import com.payMyBuddy.repository.BalanceSnapshotRepository;
+import com.payMyBuddy.repository.LedgerEntryRepository;
+import com.payMyBuddy.repository.UserRepository;
+import com.payMyBuddy.service.AccountService;
+import com.payMyBuddy.service.TransactionService;
+import com.payMyBuddy.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Not transactional on purpose: the business counters only count committed movements.
+ * Metrics export is off in tests unless asked for, hence @AutoConfigureObservability.
+ */
+@AutoConfigureObservability(tracing = false)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(
+        locations = "classpath:application-test.properties",
+        properties = "management.server.port=0"
+)
+public class MetricsIT {
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @AfterEach
+    void tearDown() {
+        balanceSnapshotRepository.deleteAllInBatch();
+        ledgerEntryRepository.deleteAllInBatch();
+        accountRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Le endpoint Prometheus expose les histogrammes, les compteurs métier et le pool Hikari")
+    void prometheus_shouldExposeLatencyHistogramsBusinessCountersAndPoolStats_test() {
+
+        // Given
+        UserCreateDTO createdUser = new UserCreateDTO();
+        createdUser.setEmail("metrics@example.com");
+        createdUser.setUsername("metrics");
+        createdUser.setPassword("123123");
+        createdUser.setConfirmPassword("123123");
+        userService.createUser(createdUser);
+
+        Integer userId = userService.findByUserEmailInternalUse("metrics@example.com").getId();
+        accountService.createAccount(new AccountCreateDTO("Second account"), userId);
+        List<Integer> accountIds = accountRepository.findByUserId(userId).stream().map(Account::getId).toList();
+
+        accountService.updateBalanceAccount(new BalanceUpdateDTO(accountIds.get(0), new BigDecimal("100")));
+        assertThrows(
+                InsufficientBalanceException.class,
+                () -> transactionService.createTransaction(new TransactionCreateDTO(
+                        accountIds.get(0), accountIds.get(1), new BigDecimal("500"), "Too much"
+                ))
+        );
+        restTemplate.getForEntity("http://localhost:" + port + "/login", String.class);
+
+        // When
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "http://127.0.0.1:" + managementPort + "/actuator/prometheus", String.class
+        );
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        String scrape = response.getBody();
+        assertNotNull(scrape);
+
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket{"));
+        assertTrue(scrape.contains("method_timed_seconds_bucket{"));
+        assertTrue(scrape.contains("class=\"AccountService\""));
+        assertTrue(scrape.contains("payments_deposits_total"));
+        assertTrue(scrape.contains("payments_balance_check_failures_total{"));
+        assertTrue(scrape.contains("operation=\"transfer\""));
+        assertTrue(scrape.contains("hikaricp_connections_active"));
+        assertTrue(scrape.contains("hikaricp_connections_acquire_seconds_bucket{"));
+        assertTrue(scrape.contains("hikaricp_connections_usage_seconds_bucket{"));
+    }
+}
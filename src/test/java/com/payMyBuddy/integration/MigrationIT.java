@@ -0,0 +1,226 @@
+package com.payMyBuddy.integration;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationVersion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The migrations run by Flyway itself, in a schema of their own : from an empty schema, and from a database created
+ * by data/data_prod.sql then baselined at version 1, as the databases that predate the migrations are. Both ways
+ * must end with the same schema, the one Hibernate validates when the test contexts start.
+ */
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.properties")
+public class MigrationIT {
+
+    private static final String SCHEMA = "pay_my_buddy_migration";
+    private static final Path DATA_PROD = Path.of("data", "data_prod.sql");
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private FlywayProperties flywayProperties;
+
+    @TempDir
+    private Path legacyLocation;
+
+    @BeforeEach
+    void setUp() {
+        flyway().clean();
+    }
+
+    @AfterEach
+    void tearDown() {
+        flyway().clean();
+    }
+
+    @Test
+    @DisplayName("Base vide - Toutes les migrations s'appliquent")
+    void migrate_emptySchema_shouldApplyEveryMigration_test() {
+
+        // When
+        Flyway flyway = flyway();
+        flyway.migrate();
+
+        // Then
+        MigrationInfo[] applied = flyway.info().applied();
+        assertEquals(MigrationVersion.fromVersion("1"), applied[0].getVersion());
+        assertEquals("baseline", applied[0].getDescription());
+        assertTrue(Arrays.stream(applied).allMatch(migration -> migration.getState().isApplied()));
+        assertEquals(0, flyway.info().pending().length);
+    }
+
+    @Test
+    @DisplayName("Base créée par data_prod.sql - Prise en version 1, elle finit avec le schéma d'une base vide migrée")
+    void migrate_dataProdSchema_shouldEndWithTheSameSchema_test() throws Exception {
+
+        // Given
+        Flyway flyway = flyway();
+        flyway.migrate();
+        Map<String, String> migratedFromEmpty = describe();
+        flyway.clean();
+
+        createWithDataProd();
+        // a transfer made before the migrations, its id handed out by AUTO_INCREMENT
+        jdbcTemplate.update(
+                "INSERT INTO " + SCHEMA + ".transactions (id, sender_account_id, receiver_account_id, amount, type) "
+                        + "SELECT 120, MIN(id), MAX(id), 10.00, 'BENEFICIARY_TRANSFER' FROM " + SCHEMA + ".accounts"
+        );
+
+        // When
+        flyway.migrate();
+
+        // Then
+        MigrationInfo[] applied = flyway.info().applied();
+        assertEquals("<< Flyway Baseline >>", applied[0].getDescription());
+        assertEquals(MigrationVersion.fromVersion("1"), applied[0].getVersion());
+        assertEquals(MigrationVersion.fromVersion("2"), applied[1].getVersion());
+        assertEquals(0, flyway.info().pending().length);
+
+        assertEquals(migratedFromEmpty, describe());
+
+        // the existing rows are kept, each with a creation time
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + SCHEMA + ".transactions WHERE created_at IS NOT NULL", Integer.class
+        ));
+        assertEquals(5, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + SCHEMA + ".users", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + SCHEMA + ".accounts WHERE created_at IS NULL OR version <> 0", Integer.class
+        ));
+
+        // the pooled generators hand out the block of ids just below next_val, past the existing rows
+        assertEquals(120 + 50, nextVal("transactions"));
+        assertEquals(50, nextVal("ledger_entries"));
+
+        // the ledger of every account starts from a snapshot of its balance
+        Integer accounts = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + SCHEMA + ".accounts", Integer.class);
+        assertEquals(accounts, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + SCHEMA + ".balance_snapshots", Integer.class));
+        assertEquals(accounts, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + SCHEMA + ".accounts a JOIN " + SCHEMA + ".balance_snapshots s "
+                        + "ON s.account_id = a.id AND s.balance = a.balance AND s.account_version = a.version",
+                Integer.class
+        ));
+    }
+
+    private Long nextVal(String sequenceName) {
+        return jdbcTemplate.queryForObject(
+                "SELECT next_val FROM " + SCHEMA + ".id_generators WHERE sequence_name = ?", Long.class, sequenceName
+        );
+    }
+
+    private Flyway flyway() {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(SCHEMA)
+                .locations(flywayProperties.getLocations().toArray(String[]::new))
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .cleanDisabled(false)
+                .load();
+    }
+
+    // data_prod.sql run in the schema of the test, without its statements choosing the database ; run as a
+    // migration of its own, whose history is then dropped as it never existed on these databases
+    private void createWithDataProd() throws IOException {
+        List<String> statements = Files.readAllLines(DATA_PROD).stream()
+                .filter(line -> !line.matches("(?i)^\\s*(DROP DATABASE|CREATE DATABASE|USE)\\b.*"))
+                .toList();
+        Files.write(legacyLocation.resolve("V1__data_prod.sql"), statements);
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(SCHEMA)
+                .locations("filesystem:" + legacyLocation)
+                .load()
+                .migrate();
+        jdbcTemplate.execute("DROP TABLE " + SCHEMA + ".flyway_schema_history");
+    }
+
+    /**
+     * Columns (type, size, fractional digits, nullability, default) and indexes (columns, uniqueness) of every table
+     * of the schema but the Flyway history. Indexes go by their columns, the names H2 gives to its own being
+     * generated.
+     */
+    private Map<String, String> describe() throws SQLException {
+        Map<String, String> description = new TreeMap<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            // MySQL reports its databases as catalogs
+            boolean catalogs = metaData.getDatabaseProductName().equals("MySQL");
+            String catalog = catalogs ? SCHEMA : null;
+            String schema = catalogs ? null : SCHEMA;
+
+            List<String> tables = new ArrayList<>();
+            try (ResultSet rows = metaData.getTables(catalog, schema, "%", new String[]{"TABLE"})) {
+                while (rows.next()) {
+                    String table = rows.getString("TABLE_NAME");
+                    if (!table.equalsIgnoreCase("flyway_schema_history")) {
+                        tables.add(table);
+                    }
+                }
+            }
+
+            for (String table : tables) {
+                try (ResultSet rows = metaData.getColumns(catalog, schema, table, "%")) {
+                    while (rows.next()) {
+                        description.put(
+                                (table + "." + rows.getString("COLUMN_NAME")).toLowerCase(),
+                                rows.getString("TYPE_NAME") + "(" + rows.getInt("COLUMN_SIZE") + ", "
+                                        + rows.getInt("DECIMAL_DIGITS") + ") nullable=" + rows.getString("IS_NULLABLE")
+                                        + " default=" + rows.getString("COLUMN_DEF")
+                        );
+                    }
+                }
+
+                Map<String, List<String>> indexColumns = new TreeMap<>();
+                Map<String, Boolean> indexUnique = new TreeMap<>();
+                try (ResultSet rows = metaData.getIndexInfo(catalog, schema, table, false, false)) {
+                    while (rows.next()) {
+                        String index = rows.getString("INDEX_NAME");
+                        if (index != null) {
+                            indexColumns.computeIfAbsent(index, name -> new ArrayList<>())
+                                    .add(rows.getString("COLUMN_NAME").toLowerCase());
+                            indexUnique.put(index, !rows.getBoolean("NON_UNIQUE"));
+                        }
+                    }
+                }
+                List<String> indexes = new ArrayList<>();
+                indexColumns.forEach((index, columns) ->
+                        indexes.add((indexUnique.get(index) ? "unique " : "") + columns));
+                indexes.sort(null);
+                description.put((table + " indexes").toLowerCase(), indexes.toString());
+            }
+        }
+        return description;
+    }
+}
@@ -0,0 +1,102 @@
+package com.payMyBuddy.integration;
+
+import com.payMyBuddy.dto.user.UserCreateDTO;
+import com.payMyBuddy.model.User;
+import com.payMyBuddy.repository.AccountRepository;
+import com.payMyBuddy.repository.UserRepository;
+import com.payMyBuddy.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Not transactional on purpose: the rehash is committed by the login, as it is behind the login form.
+ */
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.properties")
+public class PasswordRehashIT {
+
+    private static final String EMAIL = "rehash@example.com";
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @BeforeEach
+    void setUp() {
+
+        // Given
+        UserCreateDTO createdUser = new UserCreateDTO();
+        createdUser.setEmail(EMAIL);
+        createdUser.setUsername("rehash");
+        createdUser.setPassword("123123");
+        createdUser.setConfirmPassword("123123");
+
+        userService.createUser(createdUser);
+    }
+
+    @AfterEach
+    void tearDown() {
+        accountRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Un nouveau hash est préfixé, au coût configuré, et n'est pas ré-encodé à la connexion")
+    void login_whenHashIsAtConfiguredCost_shouldKeepIt_test() {
+
+        // Given
+        String stored = storedPassword();
+        assertTrue(stored.startsWith("{bcrypt}$2a$10$"));
+
+        // When
+        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(EMAIL, "123123"));
+
+        // Then
+        assertEquals(stored, storedPassword());
+    }
+
+    @Test
+    @DisplayName("Un ancien hash, sans préfixe et à un autre coût, est ré-encodé au coût configuré à la connexion")
+    void login_whenHashIsLegacy_shouldReencodeIt_test() {
+
+        // Given : seed data style hash
+        User user = userRepository.findByEmail(EMAIL).orElseThrow();
+        user.setPassword(new BCryptPasswordEncoder(12).encode("123123"));
+        userRepository.save(user);
+
+        // When
+        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(EMAIL, "123123"));
+
+        // Then
+        String stored = storedPassword();
+        assertTrue(stored.startsWith("{bcrypt}$2a$10$"));
+        assertTrue(passwordEncoder.matches("123123", stored));
+        assertTrue(authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(EMAIL, "123123")).isAuthenticated());
+    }
+
+    private String storedPassword() {
+        return userRepository.findByEmail(EMAIL).orElseThrow().getPassword();
+    }
+}
@@ -0,0 +1,312 @@
+package com.payMyBuddy.integration;
+
+import com.mysql.cj.MysqlConnection;
+import com.mysql.cj.Query;
+import com.mysql.cj.interceptors.QueryInterceptor;
+import com.mysql.cj.log.Log;
+import com.mysql.cj.protocol.Resultset;
+import com.mysql.cj.protocol.ServerSession;
+import com.payMyBuddy.dto.transaction.TransactionResponseDTO;
+import com.payMyBuddy.metrics.SqlStatementStats;
+import com.payMyBuddy.repository.AccountRepository;
+import com.payMyBuddy.repository.TransactionRepository;
+import com.payMyBuddy.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * EXPLAIN of the statements the repositories actually send, against the indexes of the migrations.
+ * The statements are taken from the driver with their parameters inlined, as MySQL receives them.
+ * Not transactional on purpose: ANALYZE TABLE commits on MySQL, the statistics must see the seeded rows.
+ */
+@SpringBootTest
+@TestPropertySource(
+        locations = "classpath:application-test.properties",
+        properties = "spring.datasource.hikari.data-source-properties.queryInterceptors="
+                + "com.payMyBuddy.integration.QueryPlanIT$SentStatements"
+)
+public class QueryPlanIT {
+
+    private static final int USERS = 50;
+    private static final int ACCOUNTS_PER_USER = 2;
+    private static final int TRANSFERS = 5000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<Integer> userIds = new ArrayList<>();
+    private final List<Integer> accountIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+
+        // Given
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO pay_my_buddy.users (username, email, password) VALUES (?, ?, ?)",
+                IntStream.range(0, USERS)
+                        .mapToObj(i -> new Object[]{"plan" + i, "plan" + i + "@example.com", "password"})
+                        .toList()
+        );
+        userIds.addAll(jdbcTemplate.queryForList(
+                "SELECT id FROM pay_my_buddy.users WHERE email LIKE 'plan%@example.com' ORDER BY id", Integer.class
+        ));
+
+        Timestamp now = Timestamp.from(Instant.now().truncatedTo(ChronoUnit.MICROS));
+        List<Object[]> accounts = new ArrayList<>();
+        for (Integer userId : userIds) {
+            for (int i = 0; i < ACCOUNTS_PER_USER; i++) {
+                accounts.add(new Object[]{userId, new BigDecimal("1000.00"), "Account " + i, now, 0L});
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO pay_my_buddy.accounts (user_id, balance, name, created_at, version) VALUES (?, ?, ?, ?, ?)",
+                accounts
+        );
+        accountIds.addAll(jdbcTemplate.queryForList(
+                "SELECT a.id FROM pay_my_buddy.accounts a JOIN pay_my_buddy.users u ON u.id = a.user_id "
+                        + "WHERE u.email LIKE 'plan%@example.com' ORDER BY a.id",
+                Integer.class
+        ));
+
+        Random random = new Random(42);
+        List<Object[]> transfers = new ArrayList<>();
+        for (int i = 0; i < TRANSFERS; i++) {
+            int sender = accountIds.get(random.nextInt(accountIds.size()));
+            int receiver = accountIds.get(random.nextInt(accountIds.size()));
+            transfers.add(new Object[]{
+                    sender, receiver, new BigDecimal("1.00"), "Transfer " + i, "BENEFICIARY_TRANSFER",
+                    Timestamp.from(now.toInstant().minusSeconds(random.nextInt(365 * 24 * 3600)))
+            });
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO pay_my_buddy.transactions "
+                        + "(sender_account_id, receiver_account_id, amount, description, type, created_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)",
+                transfers
+        );
+
+        jdbcTemplate.execute("ANALYZE TABLE pay_my_buddy.users");
+        jdbcTemplate.execute("ANALYZE TABLE pay_my_buddy.accounts");
+        jdbcTemplate.execute("ANALYZE TABLE pay_my_buddy.transactions");
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAllInBatch();
+        accountRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Historique d'un utilisateur - Chaque sens du virement passe par son index")
+    void findLatestForUser_shouldUseTheSenderAndReceiverIndexes_test() {
+
+        // Given
+        List<Integer> userAccountIds = accountRepository.findIdsByUserId(userIds.getFirst());
+
+        // When
+        SqlStatementStats.Tracked<List<TransactionResponseDTO>> tracked = track(
+                () -> transactionRepository.findLatestForUser(userAccountIds, Limit.of(10))
+        );
+        String sql = sent(tracked.stats());
+        String plan = explain(sql);
+
+        // Then
+        assertEquals(10, tracked.result().size());
+        assertTrue(plan.contains("idx_transactions_sender_created"), plan);
+        assertTrue(plan.contains("idx_transactions_receiver_created"), plan);
+        assertOnlyTheNewestRowsOfEachSide(sql);
+    }
+
+    @Test
+    @DisplayName("Page suivante de l'historique - Le curseur reste servi par les index")
+    void findForUserBefore_shouldUseTheSenderAndReceiverIndexes_test() {
+
+        // Given
+        List<Integer> userAccountIds = accountRepository.findIdsByUserId(userIds.getFirst());
+        TransactionResponseDTO cursor = transactionRepository.findLatestForUser(userAccountIds, Limit.of(10)).getLast();
+
+        // When
+        SqlStatementStats.Tracked<List<TransactionResponseDTO>> tracked = track(
+                () -> transactionRepository.findForUserBefore(
+                        userAccountIds, cursor.getCreatedAt(), cursor.getId(), Limit.of(10)
+                )
+        );
+        String sql = sent(tracked.stats());
+        String plan = explain(sql);
+
+        // Then
+        assertEquals(10, tracked.result().size());
+        assertTrue(plan.contains("idx_transactions_sender_created"), plan);
+        assertTrue(plan.contains("idx_transactions_receiver_created"), plan);
+        assertOnlyTheNewestRowsOfEachSide(sql);
+    }
+
+    @Test
+    @DisplayName("Nom de compte déjà pris - Vérifié par l'index unique (user_id, name)")
+    void existsByNameAndUserId_shouldUseTheUniqueIndex_test() {
+
+        // Given
+        Integer userId = userIds.getFirst();
+
+        // When
+        SqlStatementStats.Tracked<Boolean> tracked = track(
+                () -> accountRepository.existsByNameAndUser_Id("Account 0", userId)
+        );
+        String plan = explain(sent(tracked.stats()));
+
+        // Then
+        assertTrue(tracked.result());
+        assertTrue(plan.contains("uk_accounts_user_name"), plan);
+    }
+
+    @Test
+    @DisplayName("Comptes de plusieurs utilisateurs - Recherche par l'index (user_id, name)")
+    void findByUserIdIn_shouldUseTheUserIndex_test() {
+
+        // Given
+        List<Integer> contactIds = userIds.subList(0, 3);
+
+        // When
+        SqlStatementStats.Tracked<List<?>> tracked = track(
+                () -> accountRepository.findByUserIdIn(contactIds)
+        );
+        String plan = explain(sent(tracked.stats()));
+
+        // Then
+        assertEquals(3 * ACCOUNTS_PER_USER, tracked.result().size());
+        assertTrue(plan.contains("uk_accounts_user_name"), plan);
+    }
+
+    /**
+     * The union of the history only receives a page of each side, the whole history of the user is neither
+     * materialized nor sorted : every sort of the tree plan keeps the top rows only, and every materialized
+     * table is built from limited branches.
+     */
+    private void assertOnlyTheNewestRowsOfEachSide(String sql) {
+        String tree = jdbcTemplate.queryForObject("EXPLAIN FORMAT=TREE " + sql, String.class).toLowerCase();
+        List<String> nodes = tree.lines().toList();
+        for (int i = 0; i < nodes.size(); i++) {
+            String node = nodes.get(i);
+            assertFalse(node.contains("-> sort") && !node.contains("limit input to"), tree);
+            if (node.contains("materialize")) {
+                int depth = node.indexOf("->");
+                List<String> children = nodes.subList(i + 1, nodes.size()).stream()
+                        .takeWhile(child -> child.indexOf("->") > depth)
+                        .filter(child -> child.indexOf("->") == depth + 4)
+                        .toList();
+                assertFalse(children.isEmpty(), tree);
+                assertTrue(children.stream().allMatch(child -> child.contains("-> limit:")), tree);
+            }
+        }
+    }
+
+    /**
+     * Collect the statements of a call, as counted by the application and as sent by the driver.
+     */
+    private <T> SqlStatementStats.Tracked<T> track(Supplier<T> call) {
+        SentStatements.clear();
+        return SqlStatementStats.track(call);
+    }
+
+    /**
+     * The single statement of a tracked call, as the driver sent it.
+     */
+    private String sent(SqlStatementStats stats) {
+        assertEquals(1, stats.getStatements());
+        List<String> sent = SentStatements.drain();
+        assertEquals(1, sent.size(), sent::toString);
+        return sent.getFirst();
+    }
+
+    /**
+     * Plan of a statement, every column of every row in lower case.
+     */
+    private String explain(String sql) {
+        return jdbcTemplate.queryForList("EXPLAIN " + sql).stream()
+                .map(Map::values)
+                .map(row -> row.stream().map(String::valueOf).collect(Collectors.joining(" ")))
+                .collect(Collectors.joining("\n"))
+                .toLowerCase();
+    }
+
+    /**
+     * The prepared statements sent by the driver on the current thread, their parameters inlined.
+     * Created by the driver for each connection of this test, from the queryInterceptors property.
+     */
+    public static class SentStatements implements QueryInterceptor {
+
+        private static final ThreadLocal<List<String>> SENT = ThreadLocal.withInitial(ArrayList::new);
+
+        static void clear() {
+            SENT.remove();
+        }
+
+        static List<String> drain() {
+            List<String> sent = SENT.get();
+            SENT.remove();
+            return sent;
+        }
+
+        @Override
+        public QueryInterceptor init(MysqlConnection connection, Properties properties, Log log) {
+            return this;
+        }
+
+        @Override
+        public <T extends Resultset> T preProcess(Supplier<String> sql, Query interceptedQuery) {
+            if (interceptedQuery instanceof PreparedStatement) {
+                SENT.get().add(sql.get());
+            }
+            return null;
+        }
+
+        @Override
+        public boolean executeTopLevelOnly() {
+            return true;
+        }
+
+        @Override
+        public void destroy() {
+        }
+
+        @Override
+        public <T extends Resultset> T postProcess(
+                Supplier<String> sql, Query interceptedQuery, T originalResultSet, ServerSession serverSession
+        ) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.payMyBuddy.integration;
+
+import com.payMyBuddy.dto.account.AccountCreateDTO;
+import com.payMyBuddy.dto.user.UserCreateDTO;
+import com.payMyBuddy.model.Account;
+import com.payMyBuddy.model.User;
+import com.payMyBuddy.repository.AccountRepository;
+import com.payMyBuddy.repository.UserRepository;
+import com.payMyBuddy.service.AccountService;
+import com.payMyBuddy.service.LedgerService;
+import com.payMyBuddy.service.TransactionService;
+import com.payMyBuddy.service.UserService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The read paths of the services run in read-only transactions : Hibernate keeps no snapshot of the entities
+ * they load, never dirty-checks them and never flushes.
+ * Not transactional on purpose: each case opens the transaction the service method declares.
+ */
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.properties")
+public class ReadOnlyTransactionIT {
+
+    private final AnnotationTransactionAttributeSource attributeSource = new AnnotationTransactionAttributeSource();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+
+        // Given
+        UserCreateDTO createdUser = new UserCreateDTO();
+        createdUser.setEmail("readonly@example.com");
+        createdUser.setUsername("readonly");
+        createdUser.setPassword("123123");
+        createdUser.setConfirmPassword("123123");
+
+        userService.createUser(createdUser);
+        user = userService.findByUserEmailInternalUse(createdUser.getEmail());
+        accountService.createAccount(new AccountCreateDTO("Second account"), user.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        accountRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "UserService#findByUserId",
+            "UserService#existsByEmail",
+            "AccountService#findAccountsForCurrentUserAndHisContacts",
+            "TransactionService#findTransactionsForCurrentUser",
+            "TransactionService#findTransactionsPageForCurrentUser",
+            "LedgerService#findBalanceAt"
+    })
+    @DisplayName("Méthodes de lecture des services - Déclarées en lecture seule")
+    void queryMethods_shouldRunInReadOnlyTransactions_test(String name) {
+
+        // When
+        TransactionAttribute attribute = transactionAttribute(name);
+
+        // Then
+        assertNotNull(attribute, name);
+        assertTrue(attribute.isReadOnly(), name);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "UserService#createContact",
+            "AccountService#createAccount",
+            "TransactionService#createTransaction",
+            "LedgerService#reconcileAccount"
+    })
+    @DisplayName("Méthodes d'écriture des services - Restent en lecture-écriture")
+    void commandMethods_shouldRunInReadWriteTransactions_test(String name) {
+
+        // When
+        TransactionAttribute attribute = transactionAttribute(name);
+
+        // Then
+        assertNotNull(attribute, name);
+        assertFalse(attribute.isReadOnly(), name);
+    }
+
+    @Test
+    @DisplayName("Transaction en lecture seule - Entités sans état chargé, flush manuel")
+    void readOnlyTransaction_shouldLoadEntitiesWithoutSnapshots_test() {
+
+        // Given
+        TransactionTemplate readOnly = new TransactionTemplate(
+                transactionManager, transactionAttribute("AccountService#findAccountsForCurrentUserAndHisContacts")
+        );
+
+        // When
+        List<EntityEntry> entries = readOnly.execute(status -> {
+            accountRepository.findByUserIdIn(List.of(user.getId()));
+
+            Session session = entityManager.unwrap(Session.class);
+            assertEquals(FlushMode.MANUAL, session.getHibernateFlushMode());
+            assertTrue(session.isDefaultReadOnly());
+            return entityEntries(session);
+        });
+
+        // Then : the two accounts and their owner
+        assertEquals(3, entries.size());
+        entries.forEach(entry -> {
+            assertEquals(Status.READ_ONLY, entry.getStatus());
+            assertNull(entry.getLoadedState());
+        });
+    }
+
+    @Test
+    @DisplayName("Transaction en lecture-écriture - Chaque entité chargée garde son état pour le dirty checking")
+    void readWriteTransaction_shouldKeepASnapshotPerEntity_test() {
+
+        // Given
+        TransactionTemplate readWrite = new TransactionTemplate(
+                transactionManager, transactionAttribute("AccountService#createAccount")
+        );
+
+        // When
+        List<EntityEntry> entries = readWrite.execute(status -> {
+            accountRepository.findByUserIdIn(List.of(user.getId()));
+            return entityEntries(entityManager.unwrap(Session.class));
+        });
+
+        // Then
+        assertEquals(3, entries.size());
+        entries.forEach(entry -> {
+            assertEquals(Status.MANAGED, entry.getStatus());
+            assertNotNull(entry.getLoadedState());
+        });
+    }
+
+    @Test
+    @DisplayName("Transaction en lecture seule - Une entité modifiée n'est pas écrite")
+    void readOnlyTransaction_shouldNotFlushChanges_test() {
+
+        // Given
+        TransactionTemplate readOnly = new TransactionTemplate(
+                transactionManager, transactionAttribute("UserService#findByUserId")
+        );
+
+        // When
+        readOnly.executeWithoutResult(status -> accountRepository.findByUserIdIn(List.of(user.getId()))
+                .forEach(account -> account.setName("Renamed " + account.getId())));
+
+        // Then
+        assertTrue(accountRepository.findByUserId(user.getId()).stream()
+                .map(Account::getName)
+                .noneMatch(name -> name.startsWith("Renamed")));
+    }
+
+    private TransactionAttribute transactionAttribute(String name) {
+        String[] parts = name.split("#");
+        Class<?> service = switch (parts[0]) {
+            case "UserService" -> UserService.class;
+            case "AccountService" -> AccountService.class;
+            case "TransactionService" -> TransactionService.class;
+            case "LedgerService" -> LedgerService.class;
+            default -> throw new IllegalArgumentException(name);
+        };
+        Method method = Arrays.stream(ReflectionUtils.getUniqueDeclaredMethods(service))
+                .filter(candidate -> candidate.getName().equals(parts[1]))
+                .findFirst()
+                .orElseThrow();
+        return attributeSource.getTransactionAttribute(method, service);
+    }
+
+    // the entries of the persistence context, whose loaded state is the snapshot dirty checking compares with
+    private static List<EntityEntry> entityEntries(Session session) {
+        return Arrays.stream(session.unwrap(SessionImplementor.class).getPersistenceContextInternal().reentrantSafeEntityEntries())
+                .map(Map.Entry::getValue)
+                .toList();
+    }
+}
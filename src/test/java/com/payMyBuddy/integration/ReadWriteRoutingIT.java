@@ -0,0 +1,288 @@
+package com.payMyBuddy.integration;
+
+import com.payMyBuddy.datasource.ReplicaLagMonitor;
+import com.payMyBuddy.dto.account.AccountCreateDTO;
+import com.payMyBuddy.dto.account.BalanceUpdateDTO;
+import com.payMyBuddy.dto.transaction.TransactionCreateDTO;
+import com.payMyBuddy.dto.user.UserCreateDTO;
+import com.payMyBuddy.model.Account;
+import com.payMyBuddy.model.User;
+import com.payMyBuddy.repository.AccountRepository;
+import com.payMyBuddy.repository.BalanceSnapshotRepository;
+import com.payMyBuddy.repository.LedgerEntryRepository;
+import com.payMyBuddy.repository.TransactionRepository;
+import com.payMyBuddy.repository.UserRepository;
+import com.payMyBuddy.security.CustomUserDetailsService;
+import com.payMyBuddy.service.AccountService;
+import com.payMyBuddy.service.TransactionService;
+import com.payMyBuddy.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Two in-memory H2 databases stand for the primary and its replica, the replication being a copy of the primary
+ * made by the test : whatever the primary got since is what the replica lags behind.
+ * Not transactional on purpose: the routing depends on the transactions of the services.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(
+        locations = "classpath:application-test.properties",
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:routing_primary;MODE=MySQL;DB_CLOSE_DELAY=-1;"
+                        + "INIT=CREATE SCHEMA IF NOT EXISTS pay_my_buddy\\\\;SET SCHEMA pay_my_buddy",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.flyway.enabled=false",
+                "spring.sql.init.mode=never",
+                "paymybuddy.datasource.replica.enabled=true",
+                "paymybuddy.datasource.replica.url=jdbc:h2:mem:routing_replica;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "paymybuddy.datasource.replica.username=sa",
+                "paymybuddy.datasource.replica.password=",
+                "paymybuddy.datasource.replica.max-lag=1m",
+                // the lag is checked by the test, once the replica is in the state it wants
+                "paymybuddy.datasource.replica.heartbeat-interval=1h"
+        }
+)
+public class ReadWriteRoutingIT {
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    private User user;
+    private final List<Integer> accountIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+
+        // Given : the schema of Hibernate, the heartbeat of the migrations
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        primary.execute("DROP TABLE IF EXISTS pay_my_buddy.replication_heartbeat");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V6__replication_heartbeat.sql"))
+                .execute(primaryDataSource);
+
+        UserCreateDTO createdUser = new UserCreateDTO();
+        createdUser.setEmail("routing@example.com");
+        createdUser.setUsername("routing");
+        createdUser.setPassword("123123");
+        createdUser.setConfirmPassword("123123");
+
+        userService.createUser(createdUser);
+        user = userService.findByUserEmailInternalUse(createdUser.getEmail());
+        accountService.createAccount(new AccountCreateDTO("Second account"), user.getId());
+
+        for (Account account : accountRepository.findByUserId(user.getId())) {
+            accountService.updateBalanceAccount(new BalanceUpdateDTO(account.getId(), new BigDecimal("100.00")));
+            accountIds.add(account.getId());
+        }
+
+        replicate();
+        replicaLagMonitor.check();
+    }
+
+    @AfterEach
+    void tearDown() {
+        balanceSnapshotRepository.deleteAllInBatch();
+        ledgerEntryRepository.deleteAllInBatch();
+        transactionRepository.deleteAllInBatch();
+        accountRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        replica.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    @DisplayName("Historique en lecture seule - Servi par la réplique, le virement n'y est pas encore")
+    void findTransactionsForCurrentUser_shouldReadTheReplica_test() {
+
+        // Given : outside of any HTTP session, the mock request of the test context being unbound
+        RequestContextHolder.resetRequestAttributes();
+        assertTrue(replicaLagMonitor.isReplicaUsable());
+
+        // When : a write, then a read-only transaction
+        transfer();
+
+        // Then
+        assertEquals(1, count(primary));
+        assertEquals(0, count(replica));
+        assertTrue(transactionService.findTransactionsForCurrentUser(user.getId(), 5).isEmpty());
+        assertTrue(transactionService.findTransactionsPageForCurrentUser(user.getId(), null, 20).getTransactions().isEmpty());
+
+        // once replicated
+        replicate();
+        assertEquals(1, transactionService.findTransactionsForCurrentUser(user.getId(), 5).size());
+    }
+
+    @Test
+    @DisplayName("Historique après un virement de la session - Relu sur le primaire, la réplique en retard")
+    void showTransactions_afterATransferOfTheSession_shouldReadThePrimary_test() throws Exception {
+
+        // Given : a replica within the tolerated lag, which will not get the transfer
+        assertTrue(replicaLagMonitor.isReplicaUsable());
+        UserDetails userDetails = customUserDetailsService.loadUserByUsername(user.getEmail());
+        MockHttpSession session = new MockHttpSession();
+
+        // When
+        mockMvc.perform(post("/createTransaction")
+                        .session(session)
+                        .with(user(userDetails))
+                        .with(csrf())
+                        .param("senderAccountId", accountIds.get(0).toString())
+                        .param("receiverAccountId", accountIds.get(1).toString())
+                        .param("amount", "10")
+                        .param("description", "Routed transfer"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/transactions"));
+
+        // Then : the session reads its transfer, another session still reads the replica
+        assertEquals(0, count(replica));
+        mockMvc.perform(get("/transactions").session(session).with(user(userDetails)))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("transactions", hasSize(1)));
+        mockMvc.perform(get("/transactions").session(new MockHttpSession()).with(user(userDetails)))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("transactions", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("Réplique trop en retard - Les lectures repassent par le primaire")
+    void findTransactionsForCurrentUser_whenReplicaLagsBehind_shouldReadThePrimary_test() {
+
+        // Given : a replica two minutes behind, for a tolerance of one
+        transfer();
+        replica.update("UPDATE pay_my_buddy.replication_heartbeat SET beat = ? WHERE id = 1",
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(2)));
+
+        // When
+        replicaLagMonitor.check();
+
+        // Then
+        assertFalse(replicaLagMonitor.isReplicaUsable());
+        assertTrue(replicaLagMonitor.getLag().compareTo(Duration.ofMinutes(1)) > 0);
+        assertTrue(meterRegistry.get("datasource.replica.lag").timeGauge().value(TimeUnit.SECONDS) > 60);
+        assertEquals(1, transactionService.findTransactionsForCurrentUser(user.getId(), 5).size());
+
+        // caught up
+        replicate();
+        replicaLagMonitor.check();
+        assertTrue(replicaLagMonitor.isReplicaUsable());
+    }
+
+    @Test
+    @DisplayName("Réplique sans battement de cœur - Les lectures repassent par le primaire")
+    void findTransactionsForCurrentUser_whenReplicaDoesNotAnswer_shouldReadThePrimary_test() {
+
+        // Given
+        transfer();
+        replica.execute("DROP ALL OBJECTS");
+
+        // When
+        replicaLagMonitor.check();
+
+        // Then
+        assertFalse(replicaLagMonitor.isReplicaUsable());
+        assertNull(replicaLagMonitor.getLag());
+        assertEquals(1, transactionService.findTransactionsForCurrentUser(user.getId(), 5).size());
+    }
+
+    private void transfer() {
+        transactionService.createTransaction(new TransactionCreateDTO(
+                accountIds.get(0), accountIds.get(1), BigDecimal.TEN, "Routed transfer"
+        ));
+    }
+
+    private static int count(JdbcTemplate database) {
+        return database.queryForObject("SELECT COUNT(*) FROM pay_my_buddy.transactions", Integer.class);
+    }
+
+    /**
+     * Replicate the primary as it is now : its whole content, heartbeat included, copied over the replica.
+     */
+    private void replicate() {
+        List<String> script = primary.queryForList("SCRIPT", String.class);
+        replica.execute("DROP ALL OBJECTS");
+        script.stream()
+                .filter(statement -> !statement.startsWith("--"))
+                .forEach(replica::execute);
+    }
+}
@@ -0,0 +1,193 @@
+package com.payMyBuddy.integration;
+
+import com.payMyBuddy.dto.account.AccountCreateDTO;
+import com.payMyBuddy.dto.account.AccountResponseDTO;
+import com.payMyBuddy.dto.account.BalanceUpdateDTO;
+import com.payMyBuddy.dto.user.ContactCreateDTO;
+import com.payMyBuddy.dto.user.UserCreateDTO;
+import com.payMyBuddy.dto.user.UserResponseDTO;
+import com.payMyBuddy.repository.AccountRepository;
+import com.payMyBuddy.repository.BalanceSnapshotRepository;
+import com.payMyBuddy.repository.LedgerEntryRepository;
+import com.payMyBuddy.repository.UserRepository;
+import com.payMyBuddy.service.AccountService;
+import com.payMyBuddy.service.UserService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Not transactional on purpose: the second-level cache is only filled and evicted on commit.
+ */
+@SpringBootTest
+@TestPropertySource(
+        locations = "classpath:application-test.properties",
+        properties = {
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+                "spring.jpa.properties.hibernate.generate_statistics=true",
+                // the read model would answer findByUserId before Hibernate is asked
+                "spring.cache.type=none"
+        }
+)
+public class SecondLevelCacheIT {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private Integer userId;
+
+    @BeforeEach
+    void setUp() {
+
+        // Given
+        userId = createUser("cache@example.com", "cache");
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        balanceSnapshotRepository.deleteAllInBatch();
+        ledgerEntryRepository.deleteAllInBatch();
+        accountRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Un utilisateur déjà lu est servi par le cache de second niveau, sans requête")
+    void findByUserId_whenAlreadyRead_shouldNotHitTheDatabase_test() {
+
+        // Given
+        userService.findByUserId(userId);
+        statistics.clear();
+
+        // When
+        UserResponseDTO user = userService.findByUserId(userId);
+
+        // Then
+        assertEquals("cache", user.getUsername());
+        assertEquals(1, user.getAccounts().size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+
+        double hits = meterRegistry.get("hibernate.second.level.cache.requests")
+                .tag("result", "hit")
+                .functionCounters().stream()
+                .mapToDouble(FunctionCounter::count)
+                .sum();
+        assertTrue(hits > 0);
+    }
+
+    @Test
+    @DisplayName("Les écritures évincent les comptes et contacts mis en cache")
+    void writes_shouldEvictCachedAccountsAndContacts_test() {
+
+        // Given
+        Integer contactId = createUser("cache-contact@example.com", "contact");
+        UserResponseDTO cached = userService.findByUserId(userId);
+        Integer accountId = cached.getAccounts().iterator().next().getId();
+
+        // When / Then : account creation
+        accountService.createAccount(new AccountCreateDTO("Second Account"), userId);
+        assertEquals(2, userService.findByUserId(userId).getAccounts().size());
+
+        // When / Then : balance write
+        accountService.updateBalanceAccount(new BalanceUpdateDTO(accountId, new BigDecimal("42")));
+        BigDecimal balance = userService.findByUserId(userId).getAccounts().stream()
+                .filter(account -> account.getId().equals(accountId))
+                .map(AccountResponseDTO::getBalance)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(0, new BigDecimal("42").compareTo(balance));
+
+        // When / Then : contacts
+        userService.createContact(userId, new ContactCreateDTO("cache-contact@example.com"));
+        assertEquals(1, userService.findByUserId(userId).getContacts().size());
+        assertEquals(1, userService.findByUserId(contactId).getContacts().size());
+
+        userService.deleteContact(userId, contactId);
+        assertTrue(userService.findByUserId(userId).getContacts().isEmpty());
+        assertTrue(userService.findByUserId(contactId).getContacts().isEmpty());
+
+        // When / Then : account deletion
+        Integer secondAccountId = userService.findByUserId(userId).getAccounts().stream()
+                .filter(account -> account.getName().equals("Second Account"))
+                .map(AccountResponseDTO::getId)
+                .findFirst()
+                .orElseThrow();
+        accountService.deleteAccount(secondAccountId);
+        assertEquals(1, userService.findByUserId(userId).getAccounts().size());
+    }
+
+    @Test
+    @DisplayName("Un dépôt n'évince que le compte crédité - Les comptes des autres utilisateurs restent en cache")
+    void updateBalanceAccount_shouldOnlyEvictTheCreditedAccount_test() {
+
+        // Given
+        Integer otherUserId = createUser("cache-other@example.com", "other");
+        Integer accountId = userService.findByUserId(userId).getAccounts().iterator().next().getId();
+        Integer otherAccountId = userService.findByUserId(otherUserId).getAccounts().iterator().next().getId();
+        accountService.findAccountByIdInternalUse(otherAccountId);
+
+        // When
+        accountService.updateBalanceAccount(new BalanceUpdateDTO(accountId, new BigDecimal("42")));
+        statistics.clear();
+
+        // Then : the other user, his accounts collection and his account straight from the cache
+        assertEquals(1, userService.findByUserId(otherUserId).getAccounts().size());
+        assertEquals(otherAccountId, accountService.findAccountByIdInternalUse(otherAccountId).getId());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+        assertEquals(0, statistics.getSecondLevelCacheMissCount());
+
+        // the credited account reloaded with its new balance
+        assertEquals(0, new BigDecimal("42").compareTo(accountService.findAccountByIdInternalUse(accountId).getBalance()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private Integer createUser(String email, String username) {
+        UserCreateDTO createdUser = new UserCreateDTO();
+        createdUser.setEmail(email);
+        createdUser.setUsername(username);
+        createdUser.setPassword("123123");
+        createdUser.setConfirmPassword("123123");
+
+        userService.createUser(createdUser);
+        return userService.findByUserEmailInternalUse(email).getId();
+    }
+}
@@ -0,0 +1,177 @@
+package com.payMyBuddy.integration;
+
+import com.payMyBuddy.dto.account.AccountCreateDTO;
+import com.payMyBuddy.dto.account.BalanceUpdateDTO;
+import com.payMyBuddy.dto.transaction.TransactionCreateDTO;
+import com.payMyBuddy.dto.user.ContactCreateDTO;
+import com.payMyBuddy.dto.user.UserCreateDTO;
+import com.payMyBuddy.metrics.SqlStatementStats;
+import com.payMyBuddy.model.User;
+import com.payMyBuddy.repository.AccountRepository;
+import com.payMyBuddy.repository.BalanceSnapshotRepository;
+import com.payMyBuddy.repository.LedgerEntryRepository;
+import com.payMyBuddy.repository.TransactionRepository;
+import com.payMyBuddy.repository.UserRepository;
+import com.payMyBuddy.security.CustomUserDetails;
+import com.payMyBuddy.service.AccountService;
+import com.payMyBuddy.service.TransactionService;
+import com.payMyBuddy.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Not transactional on purpose: the reads must hit the database rather than the persistence context of the test.
+ * The read-model cache is off for the same reason.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(
+        locations = "classpath:application-test.properties",
+        properties = "spring.cache.type=none"
+)
+public class SqlStatementBudgetIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+
+        // Given
+        user = createUser("budget@example.com", "budget");
+    }
+
+    @AfterEach
+    void tearDown() {
+        balanceSnapshotRepository.deleteAllInBatch();
+        ledgerEntryRepository.deleteAllInBatch();
+        transactionRepository.deleteAllInBatch();
+        accountRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("UserMapper - Le nombre de requêtes ne dépend ni du nombre de comptes ni du nombre de contacts")
+    void findByUserId_shouldNotIssueOneQueryPerAccountOrContact_test() {
+
+        // Given
+        addContactsAndAccounts(1);
+        int small = SqlStatementStats.track(() -> userService.findByUserId(user.getId())).stats().getStatements();
+
+        addContactsAndAccounts(10);
+
+        // When
+        int large = SqlStatementStats.track(() -> userService.findByUserId(user.getId())).stats().getStatements();
+
+        // Then
+        assertEquals(small, large);
+    }
+
+    @Test
+    @DisplayName("TransactionMapper - Une page d'historique est lue en deux requêtes, comptes puis historique")
+    void findTransactionsPageForCurrentUser_shouldIssueTwoQueries_test() {
+
+        // Given
+        User contact = createUser("budget-contact@example.com", "contact");
+        Integer accountId = firstAccountId(user);
+        Integer contactAccountId = firstAccountId(contact);
+        accountService.updateBalanceAccount(new BalanceUpdateDTO(accountId, new BigDecimal("1000")));
+        for (int i = 0; i < 30; i++) {
+            transactionService.createTransaction(new TransactionCreateDTO(accountId, contactAccountId, BigDecimal.ONE, "Budget " + i));
+        }
+
+        // When
+        SqlStatementStats stats = SqlStatementStats.track(
+                () -> transactionService.findTransactionsPageForCurrentUser(user.getId(), null, 20)
+        ).stats();
+
+        // Then
+        assertEquals(2, stats.getStatements());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/dashboard", "/transactions", "/contacts", "/accounts", "/profile"})
+    @DisplayName("Les pages restent dans le budget de requêtes et l'annoncent dans leurs en-têtes")
+    void pages_shouldStayWithinStatementBudget_test(String page) throws Exception {
+
+        // Given
+        addContactsAndAccounts(5);
+
+        // When : over budget, the filter fails the request in test mode
+        MvcResult result = mockMvc.perform(get(page).with(user(new CustomUserDetails(user))))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Then
+        assertNotNull(result.getResponse().getHeader("X-Sql-Statements"));
+        assertNotNull(result.getResponse().getHeader("X-Sql-Time"));
+    }
+
+    private void addContactsAndAccounts(int count) {
+        int existing = accountRepository.findByUserId(user.getId()).size();
+        for (int i = 0; i < count; i++) {
+            String email = "budget-" + (existing + i) + "@example.com";
+            createUser(email, "contact" + (existing + i));
+            userService.createContact(user.getId(), new ContactCreateDTO(email));
+            accountService.createAccount(new AccountCreateDTO("Account " + (existing + i)), user.getId());
+        }
+    }
+
+    private Integer firstAccountId(User owner) {
+        return accountRepository.findByUserId(owner.getId()).iterator().next().getId();
+    }
+
+    private User createUser(String email, String username) {
+        UserCreateDTO createdUser = new UserCreateDTO();
+        createdUser.setEmail(email);
+        createdUser.setUsername(username);
+        createdUser.setPassword("123123");
+        createdUser.setConfirmPassword("123123");
+
+        userService.createUser(createdUser);
+        return userService.findByUserEmailInternalUse(email);
+    }
+}
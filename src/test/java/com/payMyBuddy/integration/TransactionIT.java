@@ -2,21 +2,28 @@ package com.payMyBuddy.integration;
 
 import com.payMyBuddy.dto.account.AccountCreateDTO;
 import com.payMyBuddy.dto.account.BalanceUpdateDTO;
+import com.payMyBuddy.dto.transaction.TransactionCreateDTO;
+import com.payMyBuddy.dto.transaction.TransactionPageResponseDTO;
+import com.payMyBuddy.dto.transaction.TransactionResponseDTO;
+import com.payMyBuddy.dto.transaction.TransactionResultDTO;
 import com.payMyBuddy.dto.user.UserCreateDTO;
 import com.payMyBuddy.exception.ResourceNotFoundException;
 import com.payMyBuddy.model.Account;
-import com.payMyBuddy.model.Transaction;
 import com.payMyBuddy.model.User;
 import com.payMyBuddy.repository.AccountRepository;
-import com.payMyBuddy.repository.TransactionRepository;
 import com.payMyBuddy.security.CustomUserDetailsService;
 import com.payMyBuddy.security.SecurityUtils;
 import com.payMyBuddy.service.AccountService;
 import com.payMyBuddy.service.TransactionService;
 import com.payMyBuddy.service.UserService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -37,14 +44,20 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
-@TestPropertySource(locations = "classpath:application-test.properties")
+@TestPropertySource(
+        locations = "classpath:application-test.properties",
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true"
+)
 @Transactional
 @WithMockUser
 public class TransactionIT {
@@ -71,7 +84,7 @@ public class TransactionIT {
     private AccountRepository accountRepository;
 
     @Autowired
-    private TransactionRepository transactionRepository;
+    private EntityManager entityManager;
 
     @MockitoBean
     private SecurityUtils securityUtils;
@@ -160,24 +173,26 @@ public class TransactionIT {
                 .andExpect(flash().attributeExists("successMessage"))
                 .andExpect(flash().attribute("successMessage", "Transaction effectuée avec succès !"));
 
+        // the balances as stored
+        entityManager.flush();
+        entityManager.detach(senderAccount);
+        entityManager.detach(receiverAccount);
         Account updatedSenderAccount = accountService.findAccountByIdInternalUse(senderAccount.getId());
         Account updatedReceiverAccount = accountService.findAccountByIdInternalUse(receiverAccount.getId());
 
-        List<Transaction> transactions = transactionRepository.findBySenderAccount_User_IdOrReceiverAccount_User_Id(
-                user.getId(), user.getId()
-        );
-        Transaction transaction = transactions.getFirst();
+        List<TransactionResponseDTO> transactions = transactionService.findTransactionsForCurrentUser(user.getId(), 0);
+        TransactionResponseDTO transaction = transactions.getFirst();
 
         // Then
-        assertEquals(BigDecimal.valueOf(900), updatedSenderAccount.getBalance());
-        assertEquals(BigDecimal.valueOf(100), updatedReceiverAccount.getBalance());
+        assertEquals(new BigDecimal("900.00"), updatedSenderAccount.getBalance());
+        assertEquals(new BigDecimal("100.00"), updatedReceiverAccount.getBalance());
 
         assertEquals(1, transactions.size());
 
-        assertEquals(BigDecimal.valueOf(100), transaction.getAmount());
+        assertEquals(new BigDecimal("100.00"), transaction.getAmount());
         assertEquals("Test transaction", transaction.getDescription());
-        assertEquals(senderAccount.getId(), transaction.getSenderAccount().getId());
-        assertEquals(receiverAccount.getId(), transaction.getReceiverAccount().getId());
+        assertEquals(senderAccount.getId(), transaction.getSenderAccountId());
+        assertEquals(receiverAccount.getId(), transaction.getReceiverAccountId());
     }
 
     @Test
@@ -258,16 +273,213 @@ public class TransactionIT {
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/transactions"));
 
+        // the balances as stored
+        entityManager.flush();
+        entityManager.detach(senderAccount);
+        entityManager.detach(receiverAccount);
         Account updatedSenderAccount = accountService.findAccountByIdInternalUse(senderAccount.getId());
         Account updatedReceiverAccount = accountService.findAccountByIdInternalUse(receiverAccount.getId());
 
-        List<Transaction> transactions = transactionRepository.findBySenderAccount_User_IdOrReceiverAccount_User_Id(
-                user.getId(), user.getId());
+        List<TransactionResponseDTO> transactions = transactionService.findTransactionsForCurrentUser(user.getId(), 0);
 
         // Then
-        assertEquals(BigDecimal.valueOf(500), updatedSenderAccount.getBalance());
-        assertEquals(BigDecimal.valueOf(500), updatedReceiverAccount.getBalance());
+        assertEquals(new BigDecimal("500.00"), updatedSenderAccount.getBalance());
+        assertEquals(new BigDecimal("500.00"), updatedReceiverAccount.getBalance());
 
         assertEquals(2, transactions.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Pagination de l'historique des transactions par curseur")
+    void findTransactionsPage_withCursor_success_test() {
+
+        // Given
+        for (int i = 1; i <= 3; i++) {
+            TransactionCreateDTO transactionCreateDTO = new TransactionCreateDTO(
+                    senderAccount.getId(), receiverAccount.getId(), BigDecimal.TEN, "Transaction " + i
+            );
+            transactionService.createTransaction(transactionCreateDTO);
+        }
+
+        // When
+        TransactionPageResponseDTO firstPage = transactionService.findTransactionsPageForCurrentUser(user.getId(), null, 2);
+        TransactionPageResponseDTO secondPage = transactionService.findTransactionsPageForCurrentUser(
+                user.getId(), firstPage.getNextCursor(), 2
+        );
+
+        // Then
+        assertEquals(2, firstPage.getTransactions().size());
+        assertTrue(firstPage.hasNext());
+        assertEquals("Transaction 3", firstPage.getTransactions().getFirst().getDescription());
+
+        assertEquals(1, secondPage.getTransactions().size());
+        assertFalse(secondPage.hasNext());
+        assertEquals("Transaction 1", secondPage.getTransactions().getFirst().getDescription());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    @DisplayName("Historique des transactions chargé en deux requêtes, comptes puis historique, quelle que soit sa taille")
+    void findTransactionsForCurrentUser_shouldUseConstantStatements_test(int historySize) {
+
+        // Given
+        for (int i = 0; i < historySize; i++) {
+            transactionService.createTransaction(new TransactionCreateDTO(
+                    senderAccount.getId(), receiverAccount.getId(), BigDecimal.ONE, "Transaction " + i
+            ));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        // When
+        List<TransactionResponseDTO> transactions = transactionService.findTransactionsForCurrentUser(user.getId(), 0);
+        transactions.forEach(transaction -> {
+            assertEquals("user", transaction.getSenderUsername());
+            assertEquals("user", transaction.getReceiverUsername());
+        });
+
+        // Then
+        assertEquals(historySize, transactions.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Création de transactions en masse via l'API JSON")
+    void createTransactions_bulk_success_test() throws Exception {
+
+        // When
+        mockMvc.perform(post("/transactions/bulk")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [
+                                  {"senderAccountId": %d, "receiverAccountId": %d, "amount": 600, "description": "Bulk 1"},
+                                  {"senderAccountId": %d, "receiverAccountId": %d, "amount": 600, "description": "Bulk 2"},
+                                  {"senderAccountId": %d, "receiverAccountId": %d, "amount": 100, "description": "Bulk 3"}
+                                ]
+                                """.formatted(
+                                senderAccount.getId(), receiverAccount.getId(),
+                                senderAccount.getId(), receiverAccount.getId(),
+                                receiverAccount.getId(), senderAccount.getId()
+                        )))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].success").value(true))
+                .andExpect(jsonPath("$[0].transactionId").isNumber())
+                .andExpect(jsonPath("$[1].success").value(false))
+                .andExpect(jsonPath("$[1].message").value("Solde insuffisant. Veuillez alimenter votre compte."))
+                .andExpect(jsonPath("$[2].success").value(true));
+
+        // Then
+        entityManager.flush();
+        entityManager.clear();
+        Account updatedSenderAccount = accountService.findAccountByIdInternalUse(senderAccount.getId());
+        Account updatedReceiverAccount = accountService.findAccountByIdInternalUse(receiverAccount.getId());
+
+        assertEquals(new BigDecimal("500.00"), updatedSenderAccount.getBalance());
+        assertEquals(new BigDecimal("500.00"), updatedReceiverAccount.getBalance());
+        assertEquals(2, transactionService.findTransactionsForCurrentUser(user.getId(), 0).size());
+    }
+
+    @Test
+    @DisplayName("Création de transactions en masse - Le compte d'un autre utilisateur ne peut pas être débité")
+    void createTransactions_bulk_withForeignSenderAccount_shouldRejectIt_test() throws Exception {
+
+        // Given
+        UserCreateDTO createdVictim = new UserCreateDTO();
+        createdVictim.setEmail("victim@example.com");
+        createdVictim.setUsername("victim");
+        createdVictim.setPassword("123123");
+        createdVictim.setConfirmPassword("123123");
+
+        userService.createUser(createdVictim);
+        User victim = userService.findByUserEmailInternalUse(createdVictim.getEmail());
+        Account victimAccount = accountRepository.findByUserId(victim.getId()).iterator().next();
+        accountService.updateBalanceAccount(new BalanceUpdateDTO(victimAccount.getId(), new BigDecimal("300")));
+
+        // When
+        mockMvc.perform(post("/transactions/bulk")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [
+                                  {"senderAccountId": %d, "receiverAccountId": %d, "amount": 300, "description": "Not mine"},
+                                  {"senderAccountId": %d, "receiverAccountId": %d, "amount": 100, "description": "Mine"}
+                                ]
+                                """.formatted(
+                                victimAccount.getId(), senderAccount.getId(),
+                                senderAccount.getId(), receiverAccount.getId()
+                        )))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].success").value(false))
+                .andExpect(jsonPath("$[0].message").value("Ce compte expéditeur ne vous appartient pas."))
+                .andExpect(jsonPath("$[1].success").value(true));
+
+        // Then
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(new BigDecimal("300.00"), accountService.findAccountByIdInternalUse(victimAccount.getId()).getBalance());
+        assertEquals(new BigDecimal("900.00"), accountService.findAccountByIdInternalUse(senderAccount.getId()).getBalance());
+        assertTrue(transactionService.findTransactionsForCurrentUser(victim.getId(), 0).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Création de transactions en masse - Un lot au-delà de la taille maximale est refusé")
+    void createTransactions_bulk_overMaxSize_shouldReturnBadRequest_test() throws Exception {
+
+        // Given
+        String transfers = IntStream.range(0, 101)
+                .mapToObj(i -> "{\"senderAccountId\": %d, \"receiverAccountId\": %d, \"amount\": 1, \"description\": \"Bulk\"}"
+                        .formatted(senderAccount.getId(), receiverAccount.getId()))
+                .collect(Collectors.joining(",", "[", "]"));
+
+        // When
+        mockMvc.perform(post("/transactions/bulk")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(transfers))
+                .andExpect(status().isBadRequest());
+
+        // Then
+        assertTrue(transactionService.findTransactionsForCurrentUser(user.getId(), 0).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Création de transactions en masse - Les insertions sont regroupées en lots JDBC")
+    void createTransactions_bulk_shouldBatchInserts_test() {
+
+        // Given
+        int transfers = 120;
+        List<TransactionCreateDTO> transactionCreateDTOs = new ArrayList<>();
+        for (int i = 0; i < transfers; i++) {
+            transactionCreateDTOs.add(new TransactionCreateDTO(
+                    senderAccount.getId(), receiverAccount.getId(), BigDecimal.ONE, "Bulk " + i
+            ));
+        }
+        entityManager.flush();
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        // When
+        List<TransactionResultDTO> results = transactionService.createTransactions(user.getId(), transactionCreateDTOs);
+        entityManager.flush();
+
+        // Then
+        assertEquals(transfers, results.size());
+        assertTrue(results.stream().allMatch(TransactionResultDTO::isSuccess));
+        assertEquals(transfers, results.stream().map(TransactionResultDTO::getTransactionId).distinct().count());
+        // the transaction itself, its debit and credit ledger entries, then its outbox entry
+        assertEquals(transfers * 4, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() < 15,
+                () -> "Expected batched inserts, got " + statistics.getPrepareStatementCount() + " statements");
+    }
+}
@@ -0,0 +1,246 @@
+package com.payMyBuddy.integration;
+
+import com.payMyBuddy.config.AccountLockingProperties;
+import com.payMyBuddy.dto.account.AccountCreateDTO;
+import com.payMyBuddy.dto.account.BalanceUpdateDTO;
+import com.payMyBuddy.dto.transaction.TransactionCreateDTO;
+import com.payMyBuddy.dto.user.UserCreateDTO;
+import com.payMyBuddy.exception.InsufficientBalanceException;
+import com.payMyBuddy.model.Account;
+import com.payMyBuddy.model.LedgerEntryType;
+import com.payMyBuddy.model.User;
+import com.payMyBuddy.repository.AccountRepository;
+import com.payMyBuddy.repository.BalanceSnapshotRepository;
+import com.payMyBuddy.repository.LedgerEntryRepository;
+import com.payMyBuddy.repository.TransactionRepository;
+import com.payMyBuddy.repository.UserRepository;
+import com.payMyBuddy.service.AccountService;
+import com.payMyBuddy.service.LedgerService;
+import com.payMyBuddy.service.TransactionService;
+import com.payMyBuddy.service.UserService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Not transactional on purpose: every transfer must commit on its own thread to exercise the row locks.
+ */
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.properties")
+public class TransferConcurrencyIT {
+
+    private static final int ACCOUNTS = 4;
+    private static final int TRANSFERS = 2000;
+    private static final int THREADS = 8;
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000.00");
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    private AccountLockingProperties lockingProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<Integer> accountIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+
+        // Given
+        UserCreateDTO createdUser = new UserCreateDTO();
+        createdUser.setEmail("concurrency@example.com");
+        createdUser.setUsername("concurrency");
+        createdUser.setPassword("123123");
+        createdUser.setConfirmPassword("123123");
+
+        userService.createUser(createdUser);
+        User user = userService.findByUserEmailInternalUse(createdUser.getEmail());
+
+        for (int i = 1; i < ACCOUNTS; i++) {
+            accountService.createAccount(new AccountCreateDTO("Account " + i), user.getId());
+        }
+
+        for (Account account : accountRepository.findByUserId(user.getId())) {
+            accountService.updateBalanceAccount(new BalanceUpdateDTO(account.getId(), INITIAL_BALANCE));
+            accountIds.add(account.getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        lockingProperties.setStrategy(AccountLockingProperties.Strategy.OPTIMISTIC);
+        lockingProperties.getRetry().setMaxAttempts(5);
+
+        balanceSnapshotRepository.deleteAllInBatch();
+        ledgerEntryRepository.deleteAllInBatch();
+        transactionRepository.deleteAllInBatch();
+        accountRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Deux débits concurrents que le solde ne couvre qu'une fois - Un seul passe")
+    void debitBalanceAccount_concurrently_shouldLetOnlyOneThrough_test() throws Exception {
+
+        // Given
+        Integer accountId = accountIds.getFirst();
+        BigDecimal amount = new BigDecimal("600.00");
+
+        // When
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int i = 0; i < 2; i++) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    accountService.debitBalanceAccount(new BalanceUpdateDTO(accountId, amount));
+                    succeeded.incrementAndGet();
+                } catch (InsufficientBalanceException e) {
+                    rejected.incrementAndGet();
+                } catch (Throwable e) {
+                    unexpected.add(e);
+                }
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        // Then : the second statement waits for the row lock, then finds the balance no longer covers it
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected failures: " + unexpected);
+        assertEquals(1, succeeded.get());
+        assertEquals(1, rejected.get());
+        assertEquals(new BigDecimal("400.00"), accountRepository.findById(accountId).orElseThrow().getBalance());
+        assertEquals(1, ledgerEntryRepository.findByAccountIdOrderByAccountVersionAscIdAsc(accountId).stream()
+                .filter(entry -> entry.getType() == LedgerEntryType.WITHDRAWAL)
+                .count());
+        assertTrue(ledgerService.reconcileAccount(accountId).isConsistent());
+    }
+
+    @ParameterizedTest
+    @EnumSource(AccountLockingProperties.Strategy.class)
+    @DisplayName("Virements concurrents dans les deux sens - Le total des soldes est conservé")
+    void createTransaction_concurrently_shouldConserveMoney_test(AccountLockingProperties.Strategy strategy) throws Exception {
+
+        // Given
+        lockingProperties.setStrategy(strategy);
+        lockingProperties.getRetry().setMaxAttempts(20);
+
+        Counter calls = meterRegistry.counter(
+                "account.update.calls", "operation", "createTransaction", "strategy", strategy.name().toLowerCase()
+        );
+        double callsBefore = calls.count();
+
+        // When
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger conflicted = new AtomicInteger();
+        Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int i = 0; i < TRANSFERS; i++) {
+            Random random = new Random(i);
+            int from = random.nextInt(ACCOUNTS);
+            int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+            BigDecimal amount = BigDecimal.valueOf(1 + random.nextInt(100));
+
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    transactionService.createTransaction(new TransactionCreateDTO(
+                            accountIds.get(from), accountIds.get(to), amount, "Concurrent transfer"
+                    ));
+                    succeeded.incrementAndGet();
+                } catch (InsufficientBalanceException e) {
+                    rejected.incrementAndGet();
+                } catch (ConcurrencyFailureException e) {
+                    // retries exhausted, the transfer was rolled back as a whole
+                    conflicted.incrementAndGet();
+                } catch (Throwable e) {
+                    unexpected.add(e);
+                }
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.MINUTES));
+
+        // Then
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected failures: " + unexpected);
+        assertEquals(TRANSFERS, succeeded.get() + rejected.get() + conflicted.get());
+        assertEquals(TRANSFERS, calls.count() - callsBefore);
+        if (strategy == AccountLockingProperties.Strategy.PESSIMISTIC) {
+            assertEquals(0, conflicted.get());
+        }
+
+        List<Account> accounts = accountRepository.findAllById(accountIds);
+        BigDecimal total = accounts.stream()
+                .map(Account::getBalance)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        assertEquals(0, INITIAL_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS)).compareTo(total));
+        accounts.forEach(account -> assertTrue(account.getBalance().signum() >= 0));
+        assertEquals(succeeded.get(), transactionRepository.count());
+
+        // the versions order the entries of each account even under contention
+        accountIds.forEach(accountId -> assertTrue(ledgerService.reconcileAccount(accountId).isConsistent()));
+    }
+}
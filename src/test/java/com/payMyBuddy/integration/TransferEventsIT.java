@@ -0,0 +1,360 @@
+package com.payMyBuddy.integration;
+
+import com.payMyBuddy.dto.account.BalanceUpdateDTO;
+import com.payMyBuddy.dto.transaction.TransactionCreateDTO;
+import com.payMyBuddy.dto.user.UserCreateDTO;
+import com.payMyBuddy.event.TransferCompletedEvent;
+import com.payMyBuddy.event.TransferCompletedHandler;
+import com.payMyBuddy.exception.InsufficientBalanceException;
+import com.payMyBuddy.model.Account;
+import com.payMyBuddy.model.TransactionType;
+import com.payMyBuddy.model.TransferOutboxEntry;
+import com.payMyBuddy.model.User;
+import com.payMyBuddy.repository.AccountRepository;
+import com.payMyBuddy.repository.BalanceSnapshotRepository;
+import com.payMyBuddy.repository.LedgerEntryRepository;
+import com.payMyBuddy.repository.TransactionRepository;
+import com.payMyBuddy.repository.TransferOutboxRepository;
+import com.payMyBuddy.repository.UserRepository;
+import com.payMyBuddy.service.AccountService;
+import com.payMyBuddy.service.TransactionService;
+import com.payMyBuddy.service.TransferOutboxPoller;
+import com.payMyBuddy.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Not transactional on purpose: the events are only delivered once the transfer has committed.
+ * The scheduled poll is pushed back so that only the tests run the poller.
+ */
+@SpringBootTest
+@TestPropertySource(
+        locations = "classpath:application-test.properties",
+        properties = {
+                "paymybuddy.events.transfer.batch-size=10",
+                "paymybuddy.events.transfer.outbox.poll-interval=1h",
+                "paymybuddy.events.transfer.outbox.batch-size=3",
+                "paymybuddy.events.transfer.outbox.max-attempts=2"
+        }
+)
+public class TransferEventsIT {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransferOutboxPoller transferOutboxPoller;
+
+    @Autowired
+    private RecordingHandler recordingHandler;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    private TransferOutboxRepository transferOutboxRepository;
+
+    private Account senderAccount;
+    private Account receiverAccount;
+
+    @BeforeEach
+    void setUp() {
+
+        // Given
+        User sender = createUser("events-sender");
+        User receiver = createUser("events-receiver");
+
+        senderAccount = accountRepository.findByUserId(sender.getId()).iterator().next();
+        receiverAccount = accountRepository.findByUserId(receiver.getId()).iterator().next();
+        accountService.updateBalanceAccount(new BalanceUpdateDTO(senderAccount.getId(), new BigDecimal("100.00")));
+
+        recordingHandler.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transferOutboxRepository.deleteAllInBatch();
+        balanceSnapshotRepository.deleteAllInBatch();
+        ledgerEntryRepository.deleteAllInBatch();
+        transactionRepository.deleteAllInBatch();
+        accountRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Virement validé - L'événement est livré après le commit et son entrée d'outbox publiée")
+    void createTransaction_shouldDeliverTheEventAfterCommit_test() throws Exception {
+
+        // When
+        transactionService.createTransaction(new TransactionCreateDTO(
+                senderAccount.getId(), receiverAccount.getId(), new BigDecimal("25.00"), "Event transfer"
+        ));
+
+        // Then
+        List<TransferCompletedEvent> batch = recordingHandler.nextBatch();
+        assertNotNull(batch);
+        assertEquals(1, batch.size());
+
+        TransferCompletedEvent event = batch.getFirst();
+        assertEquals(transactionRepository.findAll().getFirst().getId(), event.transactionId());
+        assertEquals(senderAccount.getId(), event.senderAccountId());
+        assertEquals(receiverAccount.getId(), event.receiverAccountId());
+        assertEquals(receiverAccount.getUser().getId(), event.receiverUserId());
+        assertEquals(0, new BigDecimal("25.00").compareTo(event.amount()));
+        assertEquals(TransactionType.BENEFICIARY_TRANSFER, event.type());
+
+        assertTrue(awaitPublished(event.outboxId()));
+    }
+
+    @Test
+    @DisplayName("Virement refusé - Ni événement ni entrée d'outbox")
+    void createTransaction_rolledBack_shouldNotDeliverAnything_test() throws Exception {
+
+        // When
+        assertThrows(InsufficientBalanceException.class, () -> transactionService.createTransaction(
+                new TransactionCreateDTO(senderAccount.getId(), receiverAccount.getId(), new BigDecimal("500.00"), "Too much")
+        ));
+
+        // Then
+        assertNull(recordingHandler.batches.poll(500, TimeUnit.MILLISECONDS));
+        assertEquals(0, transferOutboxRepository.count());
+    }
+
+    @Test
+    @DisplayName("Lot de virements - Les événements sont livrés par lots")
+    void createTransactions_shouldDeliverTheEventsInBatches_test() throws Exception {
+
+        // Given
+        List<TransactionCreateDTO> transfers = IntStream.range(0, 25)
+                .mapToObj(i -> new TransactionCreateDTO(
+                        senderAccount.getId(), receiverAccount.getId(), BigDecimal.ONE, "Bulk " + i
+                ))
+                .toList();
+
+        // When
+        transactionService.createTransactions(senderAccount.getUser().getId(), transfers);
+
+        // Then
+        List<TransferCompletedEvent> delivered = new ArrayList<>();
+        while (delivered.size() < transfers.size()) {
+            List<TransferCompletedEvent> batch = recordingHandler.nextBatch();
+            assertNotNull(batch, () -> delivered.size() + " events delivered out of " + transfers.size());
+            assertTrue(batch.size() <= 10);
+            delivered.addAll(batch);
+        }
+
+        assertEquals(transfers.size(), delivered.stream().map(TransferCompletedEvent::outboxId).distinct().count());
+        assertTrue(awaitPublished(delivered.getLast().outboxId()));
+    }
+
+    @Test
+    @DisplayName("Entrées d'outbox en attente - Le poller les livre par lots puis les marque publiées")
+    void publishPending_shouldDeliverTheEntriesLeftBehind_test() throws Exception {
+
+        // Given
+        List<TransferOutboxEntry> entries = savePendingEntries(5);
+
+        // When
+        int published = transferOutboxPoller.publishPending();
+
+        // Then
+        assertEquals(5, published);
+        assertEquals(3, recordingHandler.nextBatch().size());
+        assertEquals(2, recordingHandler.nextBatch().size());
+        transferOutboxRepository.findAllById(entries.stream().map(TransferOutboxEntry::getId).toList())
+                .forEach(entry -> assertNotNull(entry.getPublishedAt()));
+
+        assertEquals(0, transferOutboxPoller.publishPending());
+    }
+
+    @Test
+    @DisplayName("Handler en échec - Les entrées restent en attente jusqu'à leur prochaine tentative")
+    void publishPending_whenAHandlerFails_shouldLeaveTheEntriesPending_test() throws Exception {
+
+        // Given
+        List<TransferOutboxEntry> entries = savePendingEntries(2);
+        recordingHandler.failing = true;
+
+        // When
+        int published = transferOutboxPoller.publishPending();
+
+        // Then
+        assertEquals(0, published);
+        List<TransferOutboxEntry> pending = transferOutboxRepository.findAll();
+        assertEquals(2, pending.stream().filter(entry -> entry.getPublishedAt() == null).count());
+        pending.forEach(entry -> {
+            assertEquals(1, entry.getAttempts());
+            assertTrue(entry.getNextAttemptAt().isAfter(Instant.now()));
+        });
+
+        // When the handler is back, before and after the backoff
+        recordingHandler.failing = false;
+
+        // Then
+        assertEquals(0, transferOutboxPoller.publishPending());
+        entries.forEach(this::endBackoff);
+        assertEquals(2, transferOutboxPoller.publishPending());
+    }
+
+    @Test
+    @DisplayName("Entrée toujours rejetée - Les suivantes sont livrées, elle est mise de côté après le maximum de tentatives")
+    void publishPending_whenAHandlerAlwaysRejectsAnEntry_shouldDeliverTheNextOnes_test() throws Exception {
+
+        // Given
+        List<TransferOutboxEntry> entries = savePendingEntries(5);
+        TransferOutboxEntry rejected = entries.getFirst();
+        recordingHandler.rejectedTransactionId = rejected.getTransactionId();
+
+        // When : its batch fails, then goes again entry by entry, and the next batch follows
+        int published = transferOutboxPoller.publishPending() + transferOutboxPoller.publishPending();
+
+        // Then
+        assertEquals(4, published);
+        List<List<TransferCompletedEvent>> batches = new ArrayList<>();
+        recordingHandler.batches.drainTo(batches);
+        assertEquals(List.of(2, 3, 4, 5), batches.stream()
+                .flatMap(List::stream)
+                .map(TransferCompletedEvent::transactionId)
+                .toList());
+
+        TransferOutboxEntry retried = transferOutboxRepository.findById(rejected.getId()).orElseThrow();
+        assertNull(retried.getPublishedAt());
+        assertEquals(1, retried.getAttempts());
+        assertTrue(retried.getNextAttemptAt().isAfter(Instant.now()));
+
+        // When its last attempt fails too
+        endBackoff(rejected);
+        assertEquals(0, transferOutboxPoller.publishPending());
+
+        // Then it is dead-lettered, and no longer delivered even once the handler would take it
+        TransferOutboxEntry deadLettered = transferOutboxRepository.findById(rejected.getId()).orElseThrow();
+        assertEquals(2, deadLettered.getAttempts());
+        assertNotNull(deadLettered.getDeadLetteredAt());
+        assertNull(deadLettered.getPublishedAt());
+
+        recordingHandler.reset();
+        endBackoff(rejected);
+        assertEquals(0, transferOutboxPoller.publishPending());
+        assertNull(recordingHandler.batches.poll(500, TimeUnit.MILLISECONDS));
+    }
+
+    private User createUser(String username) {
+        UserCreateDTO createdUser = new UserCreateDTO();
+        createdUser.setEmail(username + "@example.com");
+        createdUser.setUsername(username);
+        createdUser.setPassword("123123");
+        createdUser.setConfirmPassword("123123");
+
+        userService.createUser(createdUser);
+        return userService.findByUserEmailInternalUse(createdUser.getEmail());
+    }
+
+    // entries of transfers whose delivery never happened, older than the grace period
+    private List<TransferOutboxEntry> savePendingEntries(int count) {
+        Instant createdAt = Instant.now().minus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.MICROS);
+        return transferOutboxRepository.saveAll(IntStream.range(0, count)
+                .mapToObj(i -> new TransferOutboxEntry(
+                        null, i + 1,
+                        senderAccount.getId(), senderAccount.getUser().getId(),
+                        receiverAccount.getId(), receiverAccount.getUser().getId(),
+                        BigDecimal.ONE, TransactionType.BENEFICIARY_TRANSFER, createdAt.plusMillis(i), null,
+                        0, null, null
+                ))
+                .toList());
+    }
+
+    // the delay before the next attempt of an entry is over
+    private void endBackoff(TransferOutboxEntry entry) {
+        TransferOutboxEntry stored = transferOutboxRepository.findById(entry.getId()).orElseThrow();
+        stored.setNextAttemptAt(Instant.now().minusSeconds(1).truncatedTo(ChronoUnit.MICROS));
+        transferOutboxRepository.save(stored);
+    }
+
+    // the dispatcher marks the entries once the handlers returned, on its own thread
+    private boolean awaitPublished(Long outboxId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (System.nanoTime() < deadline) {
+            if (transferOutboxRepository.findById(outboxId).orElseThrow().getPublishedAt() != null) {
+                return true;
+            }
+            Thread.sleep(50);
+        }
+        return false;
+    }
+
+    @TestConfiguration
+    static class RecordingHandlerConfig {
+
+        @Bean
+        RecordingHandler recordingHandler() {
+            return new RecordingHandler();
+        }
+    }
+
+    static class RecordingHandler implements TransferCompletedHandler {
+
+        final BlockingQueue<List<TransferCompletedEvent>> batches = new LinkedBlockingQueue<>();
+        volatile boolean failing;
+        volatile Integer rejectedTransactionId;
+
+        @Override
+        public void onTransfersCompleted(List<TransferCompletedEvent> events) {
+            if (failing) {
+                throw new IllegalStateException("Handler indisponible");
+            }
+            if (events.stream().anyMatch(event -> event.transactionId().equals(rejectedTransactionId))) {
+                throw new IllegalArgumentException("Événement refusé");
+            }
+            batches.add(List.copyOf(events));
+        }
+
+        List<TransferCompletedEvent> nextBatch() throws InterruptedException {
+            return batches.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+
+        void reset() {
+            failing = false;
+            rejectedTransactionId = null;
+            batches.clear();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.payMyBuddy.integration;
+
+import com.payMyBuddy.dto.user.UserCreateDTO;
+import com.payMyBuddy.dto.user.UserPasswordUpdateDTO;
+import com.payMyBuddy.repository.AccountRepository;
+import com.payMyBuddy.repository.UserRepository;
+import com.payMyBuddy.security.CustomUserDetailsService;
+import com.payMyBuddy.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Not transactional on purpose: every login runs in its own transaction, as it does behind the login form.
+ */
+@SpringBootTest
+@TestPropertySource(
+        locations = "classpath:application-test.properties",
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true"
+)
+public class UserDetailsCacheIT {
+
+    private static final String EMAIL = "login@example.com";
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Integer userId;
+
+    @BeforeEach
+    void setUp() {
+
+        // Given
+        UserCreateDTO createdUser = new UserCreateDTO();
+        createdUser.setEmail(EMAIL);
+        createdUser.setUsername("login");
+        createdUser.setPassword("123123");
+        createdUser.setConfirmPassword("123123");
+
+        userService.createUser(createdUser);
+        userId = userService.findByUserEmailInternalUse(EMAIL).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        accountRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Le principal est servi par le cache, sans requête")
+    void loadUserByUsername_whenAlreadyLoaded_shouldReturnCachedPrincipal_test() {
+
+        // Given
+        UserDetails first = customUserDetailsService.loadUserByUsername(EMAIL);
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+        long hitsBefore = lookups("hit");
+
+        // When
+        UserDetails second = customUserDetailsService.loadUserByUsername(EMAIL);
+
+        // Then
+        assertSame(first, second);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, lookups("hit") - hitsBefore);
+    }
+
+    @Test
+    @DisplayName("Le changement de mot de passe évince le principal, l'ancien mot de passe est refusé")
+    void updatePasswordByUserId_shouldEvictCachedPrincipal_test() {
+
+        // Given
+        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(EMAIL, "123123"));
+
+        UserPasswordUpdateDTO passwordUpdateDTO = new UserPasswordUpdateDTO();
+        passwordUpdateDTO.setActualPassword("123123");
+        passwordUpdateDTO.setNewPassword("456456");
+        passwordUpdateDTO.setConfirmNewPassword("456456");
+
+        // When
+        userService.updatePasswordByUserId(passwordUpdateDTO, userId);
+
+        // Then
+        assertThrows(
+                BadCredentialsException.class,
+                () -> authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(EMAIL, "123123"))
+        );
+        assertTrue(authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(EMAIL, "456456")).isAuthenticated());
+    }
+
+    private long lookups(String cache) {
+        return meterRegistry.get("security.user.lookup")
+                .tag("cache", cache)
+                .timer()
+                .count();
+    }
+}
@@ -0,0 +1,180 @@
+package com.payMyBuddy.integration;
+
+import com.payMyBuddy.dto.account.AccountCreateDTO;
+import com.payMyBuddy.dto.account.AccountResponseDTO;
+import com.payMyBuddy.dto.account.BalanceUpdateDTO;
+import com.payMyBuddy.dto.transaction.TransactionCreateDTO;
+import com.payMyBuddy.dto.user.ContactCreateDTO;
+import com.payMyBuddy.dto.user.UserCreateDTO;
+import com.payMyBuddy.dto.user.UserResponseDTO;
+import com.payMyBuddy.repository.AccountRepository;
+import com.payMyBuddy.repository.BalanceSnapshotRepository;
+import com.payMyBuddy.repository.LedgerEntryRepository;
+import com.payMyBuddy.repository.TransactionRepository;
+import com.payMyBuddy.repository.UserRepository;
+import com.payMyBuddy.service.AccountService;
+import com.payMyBuddy.service.TransactionService;
+import com.payMyBuddy.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Not transactional on purpose: every service call runs in its own transaction, as it does for a page render.
+ */
+@SpringBootTest
+@TestPropertySource(
+        locations = "classpath:application-test.properties",
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true"
+)
+public class UserResponseCacheIT {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Integer userId;
+
+    @BeforeEach
+    void setUp() {
+
+        // Given
+        userId = createUser("read-model@example.com", "readModel");
+    }
+
+    @AfterEach
+    void tearDown() {
+        balanceSnapshotRepository.deleteAllInBatch();
+        ledgerEntryRepository.deleteAllInBatch();
+        transactionRepository.deleteAllInBatch();
+        accountRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Le UserResponseDTO est servi par le cache, sans requête ni mapping")
+    void findByUserId_whenAlreadyRead_shouldReturnCachedResponse_test() {
+
+        // Given
+        UserResponseDTO first = userService.findByUserId(userId);
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+        double hitsBefore = cacheGets("hit");
+
+        // When
+        UserResponseDTO second = userService.findByUserId(userId);
+
+        // Then
+        assertSame(first, second);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, cacheGets("hit") - hitsBefore);
+    }
+
+    @Test
+    @DisplayName("Les écritures sur l'utilisateur et ses comptes évincent le UserResponseDTO")
+    void writes_shouldEvictCachedResponse_test() {
+
+        // Given
+        Integer contactId = createUser("read-model-contact@example.com", "contact");
+        Integer accountId = userService.findByUserId(userId).getAccounts().iterator().next().getId();
+        Integer contactAccountId = userService.findByUserId(contactId).getAccounts().iterator().next().getId();
+
+        // When / Then : accounts
+        accountService.createAccount(new AccountCreateDTO("Second Account"), userId);
+        assertEquals(2, userService.findByUserId(userId).getAccounts().size());
+
+        // When / Then : deposit
+        accountService.updateBalanceAccount(new BalanceUpdateDTO(accountId, new BigDecimal("100")));
+        assertBalance(userId, accountId, "100");
+
+        // When / Then : transfers, single and bulk
+        transactionService.createTransaction(new TransactionCreateDTO(accountId, contactAccountId, new BigDecimal("30"), "Single"));
+        assertBalance(userId, accountId, "70");
+        assertBalance(contactId, contactAccountId, "30");
+
+        transactionService.createTransactions(contactId, List.of(
+                new TransactionCreateDTO(contactAccountId, accountId, new BigDecimal("10"), "Bulk")
+        ));
+        assertBalance(userId, accountId, "80");
+        assertBalance(contactId, contactAccountId, "20");
+
+        // When / Then : contacts
+        userService.createContact(userId, new ContactCreateDTO("read-model-contact@example.com"));
+        assertEquals(1, userService.findByUserId(userId).getContacts().size());
+        assertEquals(1, userService.findByUserId(contactId).getContacts().size());
+
+        userService.deleteContact(userId, contactId);
+        assertTrue(userService.findByUserId(userId).getContacts().isEmpty());
+        assertTrue(userService.findByUserId(contactId).getContacts().isEmpty());
+    }
+
+    private void assertBalance(Integer ownerId, Integer accountId, String expected) {
+        BigDecimal balance = userService.findByUserId(ownerId).getAccounts().stream()
+                .filter(account -> account.getId().equals(accountId))
+                .map(AccountResponseDTO::getBalance)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(0, new BigDecimal(expected).compareTo(balance));
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", UserService.USER_RESPONSE_CACHE)
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+
+    private Integer createUser(String email, String username) {
+        UserCreateDTO createdUser = new UserCreateDTO();
+        createdUser.setEmail(email);
+        createdUser.setUsername(username);
+        createdUser.setPassword("123123");
+        createdUser.setConfirmPassword("123123");
+
+        userService.createUser(createdUser);
+        return userService.findByUserEmailInternalUse(email).getId();
+    }
+}
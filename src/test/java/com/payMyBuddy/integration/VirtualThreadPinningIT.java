@@ -0,0 +1,207 @@
+package com.payMyBuddy.integration;
+
+import com.payMyBuddy.dto.account.AccountCreateDTO;
+import com.payMyBuddy.dto.account.BalanceUpdateDTO;
+import com.payMyBuddy.dto.transaction.TransactionCreateDTO;
+import com.payMyBuddy.dto.user.UserCreateDTO;
+import com.payMyBuddy.model.Account;
+import com.payMyBuddy.model.User;
+import com.payMyBuddy.repository.AccountRepository;
+import com.payMyBuddy.repository.BalanceSnapshotRepository;
+import com.payMyBuddy.repository.LedgerEntryRepository;
+import com.payMyBuddy.repository.TransactionRepository;
+import com.payMyBuddy.repository.UserRepository;
+import com.payMyBuddy.service.AccountService;
+import com.payMyBuddy.service.TransactionService;
+import com.payMyBuddy.service.UserService;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.apache.catalina.connector.Connector;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Virtual threads only pay off if they unmount while they wait : a wait inside a synchronized block or a native
+ * frame pins the carrier thread instead, which the JDK reports as a jdk.VirtualThreadPinned event.
+ * Not transactional on purpose: every transfer must commit on its own virtual thread.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(
+        locations = "classpath:application-test.properties",
+        properties = "spring.threads.virtual.enabled=true"
+)
+public class VirtualThreadPinningIT {
+
+    private static final String PINNED = "jdk.VirtualThreadPinned";
+    private static final int TRANSFERS = 200;
+    private static final int PAGES = 20;
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    private User user;
+    private final List<Integer> accountIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+
+        // Given
+        UserCreateDTO createdUser = new UserCreateDTO();
+        createdUser.setEmail("virtual@example.com");
+        createdUser.setUsername("virtual");
+        createdUser.setPassword("123123");
+        createdUser.setConfirmPassword("123123");
+
+        userService.createUser(createdUser);
+        user = userService.findByUserEmailInternalUse(createdUser.getEmail());
+        accountService.createAccount(new AccountCreateDTO("Second account"), user.getId());
+
+        for (Account account : accountRepository.findByUserId(user.getId())) {
+            accountService.updateBalanceAccount(new BalanceUpdateDTO(account.getId(), new BigDecimal("1000.00")));
+            accountIds.add(account.getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        balanceSnapshotRepository.deleteAllInBatch();
+        ledgerEntryRepository.deleteAllInBatch();
+        transactionRepository.deleteAllInBatch();
+        accountRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Mode threads virtuels - Tomcat traite chaque requête sur un thread virtuel")
+    void virtualThreads_shouldServeRequestsOnVirtualThreads_test() {
+
+        // When
+        Connector connector = ((TomcatWebServer) context.getWebServer()).getTomcat().getConnector();
+
+        // Then
+        assertInstanceOf(VirtualThreadExecutor.class, connector.getProtocolHandler().getExecutor());
+    }
+
+    @Test
+    @DisplayName("Mode threads virtuels - Aucune attente ne bloque un thread porteur")
+    void virtualThreads_shouldNotPinCarrierThreads_test() throws Exception {
+
+        // Given
+        Queue<RecordedEvent> pinned = new ConcurrentLinkedQueue<>();
+        Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable(PINNED).withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent(PINNED, pinned::add);
+            recording.startAsync();
+
+            // When : the waits of the application from virtual threads, JDBC and row locks, the retry backoffs
+            // of the conflicting transfers, the hashes queued on their pool
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> tasks = new ArrayList<>();
+                for (int i = 0; i < TRANSFERS; i++) {
+                    int from = i % 2;
+                    tasks.add(executor.submit(() -> {
+                        try {
+                            transactionService.createTransaction(new TransactionCreateDTO(
+                                    accountIds.get(from), accountIds.get(1 - from), BigDecimal.ONE, "Virtual transfer"
+                            ));
+                        } catch (ConcurrencyFailureException e) {
+                            // retries exhausted, the transfer was rolled back as a whole
+                        }
+                        return transactionRepository.findLatestForUser(accountIds, Limit.of(10));
+                    }));
+                    if (i % 20 == 0) {
+                        tasks.add(executor.submit(() -> passwordEncoder.encode("123123")));
+                    }
+                }
+                for (Future<?> task : tasks) {
+                    try {
+                        task.get();
+                    } catch (Exception e) {
+                        unexpected.add(e);
+                    }
+                }
+            }
+
+            // and the requests Tomcat serves on its own virtual threads
+            for (int i = 0; i < PAGES; i++) {
+                assertEquals(HttpStatus.OK, restTemplate.getForEntity("/login", String.class).getStatusCode());
+            }
+
+            recording.stop();
+        }
+
+        // Then
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected failures: " + unexpected);
+        assertTrue(pinned.isEmpty(), () -> "Carrier threads pinned:\n" + pinned.stream()
+                .map(VirtualThreadPinningIT::describe)
+                .distinct()
+                .collect(Collectors.joining("\n\n")));
+    }
+
+    private static String describe(RecordedEvent event) {
+        return event.getStackTrace() == null ? event.toString() : event.getStackTrace().getFrames().stream()
+                .limit(15)
+                .map(RecordedFrame::getMethod)
+                .map(method -> method.getType().getName() + "." + method.getName())
+                .collect(Collectors.joining("\n    at ", "    at ", ""));
+    }
+}
@@ -1,7 +1,10 @@
 package com.payMyBuddy.unit.controller;
 
+import com.payMyBuddy.config.BulkTransferProperties;
 import com.payMyBuddy.controller.TransactionController;
 import com.payMyBuddy.dto.transaction.TransactionCreateDTO;
+import com.payMyBuddy.dto.transaction.TransactionPageResponseDTO;
+import com.payMyBuddy.dto.transaction.TransactionResultDTO;
 import com.payMyBuddy.dto.user.UserResponseDTO;
 import com.payMyBuddy.exception.InsufficientBalanceException;
 import com.payMyBuddy.exception.SelfSendingAmountException;
@@ -26,6 +29,9 @@ import org.springframework.web.context.WebApplicationContext;
 
 import java.math.BigDecimal;
 import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -36,7 +42,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = TransactionController.class)
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, BulkTransferProperties.class})
 @WithMockUser
 class TransactionControllerTest {
 
@@ -74,6 +80,8 @@ class TransactionControllerTest {
         // When
         when(securityUtils.getCurrentUserId()).thenReturn(userId);
         when(userService.findByUserId(userId)).thenReturn(user);
+        when(transactionService.findTransactionsPageForCurrentUser(eq(userId), isNull(), anyInt()))
+                .thenReturn(new TransactionPageResponseDTO(Collections.emptyList(), null));
 
         // Then
         mockMvc
@@ -83,6 +91,28 @@ class TransactionControllerTest {
                 .andExpect(model().attributeExists("transactions", "user", "transactionCreate", "receiversAccounts"));
     }
 
+    @Test
+    void showTransactions_withCursor_shouldDisplayRequestedPage() throws Exception {
+
+        // Given
+        Integer userId = 1;
+        String cursor = "2025-01-01T10:00:00Z,42";
+        UserResponseDTO user = new UserResponseDTO();
+
+        // When
+        when(securityUtils.getCurrentUserId()).thenReturn(userId);
+        when(userService.findByUserId(userId)).thenReturn(user);
+        when(transactionService.findTransactionsPageForCurrentUser(eq(userId), eq(cursor), anyInt()))
+                .thenReturn(new TransactionPageResponseDTO(Collections.emptyList(), "2025-01-01T09:00:00Z,21"));
+
+        // Then
+        mockMvc
+                .perform(get("/transactions").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(view().name("transactions"))
+                .andExpect(model().attribute("nextCursor", "2025-01-01T09:00:00Z,21"));
+    }
+
     @Test
     void createTransaction_withValidData_shouldRedirectToTransactions() throws Exception {
 
@@ -124,6 +154,8 @@ class TransactionControllerTest {
         // When
         when(securityUtils.getCurrentUserId()).thenReturn(userId);
         when(userService.findByUserId(userId)).thenReturn(user);
+        when(transactionService.findTransactionsPageForCurrentUser(eq(userId), isNull(), anyInt()))
+                .thenReturn(new TransactionPageResponseDTO(Collections.emptyList(), null));
 
         // Then
         mockMvc
@@ -185,4 +217,76 @@ class TransactionControllerTest {
                 .andExpect(flash().attributeExists("errorMessage2"))
                 .andExpect(flash().attribute("errorMessage2", "Virement interdit sur le même compte."));
     }
-}
\ No newline at end of file
+
+    @Test
+    void createTransactions_shouldReturnResultOfEachTransfer() throws Exception {
+
+        // Given
+        when(securityUtils.getCurrentUserId()).thenReturn(1);
+        when(transactionService.createTransactions(eq(1), anyList())).thenReturn(List.of(
+                new TransactionResultDTO(0, true, 10, null),
+                new TransactionResultDTO(1, false, null, "Solde insuffisant. Veuillez alimenter votre compte.")
+        ));
+
+        // Then
+        mockMvc
+                .perform(post("/transactions/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .with(csrf())
+                        .content("""
+                                [
+                                  {"senderAccountId": 1, "receiverAccountId": 2, "amount": 10.00, "description": "First"},
+                                  {"senderAccountId": 1, "receiverAccountId": 2, "amount": 5000.00, "description": "Second"}
+                                ]
+                                """)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].success").value(true))
+                .andExpect(jsonPath("$[0].transactionId").value(10))
+                .andExpect(jsonPath("$[1].success").value(false))
+                .andExpect(jsonPath("$[1].message").value("Solde insuffisant. Veuillez alimenter votre compte."));
+
+        verify(transactionService, times(1)).createTransactions(eq(1), argThat(transactions -> transactions.size() == 2));
+    }
+
+    @Test
+    void createTransactions_whenBatchIsTooLarge_shouldReturnBadRequest() throws Exception {
+
+        // Given
+        String transfers = IntStream.range(0, 101)
+                .mapToObj(i -> "{\"senderAccountId\": 1, \"receiverAccountId\": 2, \"amount\": 1.00, \"description\": \"Bulk\"}")
+                .collect(Collectors.joining(",", "[", "]"));
+
+        // Then
+        mockMvc
+                .perform(post("/transactions/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .with(csrf())
+                        .content(transfers)
+                )
+                .andExpect(status().isBadRequest());
+
+        verify(transactionService, never()).createTransactions(any(), anyList());
+    }
+
+    @Test
+    void createTransactions_whenAnElementIsNull_shouldReturnBadRequest() throws Exception {
+
+        // Then
+        mockMvc
+                .perform(post("/transactions/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .with(csrf())
+                        .content("""
+                                [
+                                  {"senderAccountId": 1, "receiverAccountId": 2, "amount": 10.00, "description": "First"},
+                                  null
+                                ]
+                                """)
+                )
+                .andExpect(status().isBadRequest());
+
+        verify(transactionService, never()).createTransactions(any(), anyList());
+    }
+}
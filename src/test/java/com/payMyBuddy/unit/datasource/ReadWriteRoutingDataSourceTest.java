@@ -0,0 +1,193 @@
+package com.payMyBuddy.unit.datasource;
+
+import com.payMyBuddy.datasource.ReadWriteRoutingDataSource;
+import com.payMyBuddy.datasource.ReplicaLagMonitor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final ReplicaLagMonitor lagMonitor = mock(ReplicaLagMonitor.class);
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+
+    private ReadWriteRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        dataSource = new ReadWriteRoutingDataSource(primary, replica, lagMonitor, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void getConnection_inReadOnlyTransaction_shouldUseTheReplica() throws SQLException {
+
+        // Given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+
+        // When
+        Connection connection = dataSource.getConnection();
+
+        // Then
+        assertSame(replicaConnection, connection);
+        verify(primary, never()).getConnection();
+        assertEquals(1, meterRegistry.get("datasource.routing.connections").tag("route", "replica").counter().count());
+    }
+
+    @Test
+    void getConnection_inReadWriteTransaction_shouldUseThePrimary() throws SQLException {
+
+        // Given
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+
+        // When
+        Connection connection = dataSource.getConnection();
+
+        // Then
+        assertSame(primaryConnection, connection);
+        verify(replica, never()).getConnection();
+        assertEquals(1, meterRegistry.get("datasource.routing.connections").tag("route", "primary").counter().count());
+    }
+
+    @Test
+    void getConnection_whenReplicaLagsBehind_shouldUseThePrimary() throws SQLException {
+
+        // Given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagMonitor.isReplicaUsable()).thenReturn(false);
+
+        // When
+        Connection connection = dataSource.getConnection();
+
+        // Then
+        assertSame(primaryConnection, connection);
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void getConnection_whenReplicaRefusesTheConnection_shouldFallBackToThePrimary() throws SQLException {
+
+        // Given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+        SQLException refused = new SQLException("Connection refused");
+        when(replica.getConnection()).thenThrow(refused);
+
+        // When
+        Connection connection = dataSource.getConnection();
+
+        // Then
+        assertSame(primaryConnection, connection);
+        verify(lagMonitor).replicaFailed(refused);
+        assertEquals(1, meterRegistry.get("datasource.routing.connections").tag("route", "fallback").counter().count());
+    }
+
+    @Test
+    void getConnection_inReadOnlyTransaction_afterAWriteOfTheSession_shouldUseThePrimary() throws SQLException {
+
+        // Given : a write committed by the session a second ago, for a replica up to three seconds behind
+        MockHttpServletRequest request = inRequest();
+        request.getSession().setAttribute(ReadWriteRoutingDataSource.LAST_WRITE_ATTRIBUTE, Instant.now().minusSeconds(1));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+        when(lagMonitor.getMaxStaleness()).thenReturn(Duration.ofSeconds(3));
+
+        // When
+        Connection connection = dataSource.getConnection();
+
+        // Then
+        assertSame(primaryConnection, connection);
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void getConnection_inReadOnlyTransaction_onceTheReplicaCaughtUpWithTheSession_shouldUseTheReplica() throws SQLException {
+
+        // Given
+        MockHttpServletRequest request = inRequest();
+        request.getSession().setAttribute(ReadWriteRoutingDataSource.LAST_WRITE_ATTRIBUTE, Instant.now().minusSeconds(10));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+        when(lagMonitor.getMaxStaleness()).thenReturn(Duration.ofSeconds(3));
+
+        // When
+        Connection connection = dataSource.getConnection();
+
+        // Then
+        assertSame(replicaConnection, connection);
+    }
+
+    @Test
+    void getConnection_inReadWriteTransaction_shouldStampTheSessionOnCommit() throws SQLException {
+
+        // Given
+        MockHttpServletRequest request = inRequest();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        dataSource.getConnection();
+
+        // Then : not before the commit
+        assertNull(request.getSession().getAttribute(ReadWriteRoutingDataSource.LAST_WRITE_ATTRIBUTE));
+
+        Instant beforeCommit = Instant.now();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        Object lastWrite = request.getSession().getAttribute(ReadWriteRoutingDataSource.LAST_WRITE_ATTRIBUTE);
+        assertInstanceOf(Instant.class, lastWrite);
+        assertFalse(((Instant) lastWrite).isBefore(beforeCommit));
+    }
+
+    @Test
+    void getConnection_inReadOnlyTransaction_shouldNotStampTheSession() throws SQLException {
+
+        // Given
+        inRequest();
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagMonitor.isReplicaUsable()).thenReturn(false);
+
+        // When
+        dataSource.getConnection();
+
+        // Then
+        assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+    }
+
+    private static MockHttpServletRequest inRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        return request;
+    }
+}
@@ -0,0 +1,95 @@
+package com.payMyBuddy.unit.security;
+
+import com.payMyBuddy.exception.PasswordHashingRejectedException;
+import com.payMyBuddy.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.close();
+    }
+
+    @Test
+    void encode_shouldHashOnThePoolWithTheDelegate() {
+
+        // Given
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        // When
+        String encodedPassword = encoder.encode("123123");
+
+        // Then
+        assertTrue(encoder.matches("123123", encodedPassword));
+        assertFalse(encoder.matches("456456", encodedPassword));
+        assertEquals(1, meterRegistry.get("password.hashing.duration").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("password.hashing.duration").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void encode_whenPoolAndQueueAreFull_shouldRejectRightAway() throws Exception {
+
+        // Given : one hash running and one waiting
+        CountDownLatch running = new CountDownLatch(1);
+        PasswordEncoder slowEncoder = mock(PasswordEncoder.class);
+        when(slowEncoder.encode(any())).thenAnswer(invocation -> {
+            running.countDown();
+            release.await();
+            return "hash";
+        });
+        encoder = new BoundedPasswordEncoder(slowEncoder, 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        while (meterRegistry.get("executor.queued").tag("name", "password.hashing").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        // When
+        assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("third"));
+
+        // Then
+        assertEquals(1, meterRegistry.get("password.hashing.rejected").counter().count());
+        release.countDown();
+        assertEquals("hash", first.get(5, TimeUnit.SECONDS));
+        assertEquals("hash", second.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void encode_whenHashTakesLongerThanTheTimeout_shouldReject() {
+
+        // Given
+        PasswordEncoder slowEncoder = mock(PasswordEncoder.class);
+        when(slowEncoder.encode(any())).thenAnswer(invocation -> {
+            release.await();
+            return "hash";
+        });
+        encoder = new BoundedPasswordEncoder(slowEncoder, 1, 1, Duration.ofMillis(50), meterRegistry);
+
+        // When & Then
+        assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("123123"));
+        assertEquals(1, meterRegistry.get("password.hashing.rejected").counter().count());
+    }
+}
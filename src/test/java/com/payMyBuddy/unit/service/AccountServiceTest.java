@@ -1,5 +1,6 @@
 package com.payMyBuddy.unit.service;
 
+import com.payMyBuddy.config.AccountLockingProperties;
 import com.payMyBuddy.dto.account.AccountCreateDTO;
 import com.payMyBuddy.dto.account.AccountResponseDTO;
 import com.payMyBuddy.dto.account.BalanceUpdateDTO;
@@ -7,16 +8,23 @@ import com.payMyBuddy.dto.account.ReceiversAccountsResponseDTO;
 import com.payMyBuddy.dto.user.ContactResponseDTO;
 import com.payMyBuddy.dto.user.UserResponseDTO;
 import com.payMyBuddy.exception.ConflictException;
+import com.payMyBuddy.exception.InsufficientBalanceException;
+import com.payMyBuddy.exception.ResourceNotFoundException;
 import com.payMyBuddy.mapper.AccountMapper;
+import com.payMyBuddy.metrics.PaymentMetrics;
 import com.payMyBuddy.model.Account;
 import com.payMyBuddy.model.User;
 import com.payMyBuddy.repository.AccountRepository;
 import com.payMyBuddy.service.AccountService;
+import com.payMyBuddy.service.EntityCacheService;
+import com.payMyBuddy.service.LedgerService;
 import com.payMyBuddy.service.UserService;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -44,6 +52,21 @@ class AccountServiceTest {
     @Mock
     private UserService userService;
 
+    @Spy
+    private AccountLockingProperties lockingProperties = new AccountLockingProperties();
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private EntityCacheService entityCacheService;
+
+    @Mock
+    private PaymentMetrics paymentMetrics;
+
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private AccountService accountService;
 
@@ -96,6 +119,52 @@ class AccountServiceTest {
 
     }
 
+    @Test
+    void findAccountByIdForUpdateInternalUse_shouldReturnLockedAccount_whenAccountExists() {
+
+        // Given
+        when(accountRepository.findByIdForUpdate(1)).thenReturn(Optional.of(account));
+
+        // When
+        Account result = accountService.findAccountByIdForUpdateInternalUse(1);
+
+        // Then
+        assertEquals(account.getId(), result.getId());
+
+        verify(accountRepository, times(1)).findByIdForUpdate(1);
+        verify(accountRepository, never()).findById(anyInt());
+    }
+
+    @Test
+    void findAccountForBalanceUpdateInternalUse_withPessimisticStrategy_shouldLockAccount() {
+
+        // Given
+        lockingProperties.setStrategy(AccountLockingProperties.Strategy.PESSIMISTIC);
+        when(accountRepository.findByIdForUpdate(1)).thenReturn(Optional.of(account));
+
+        // When
+        Account result = accountService.findAccountForBalanceUpdateInternalUse(1);
+
+        // Then
+        assertEquals(account.getId(), result.getId());
+        verify(accountRepository, never()).findById(anyInt());
+    }
+
+    @Test
+    void findAccountForBalanceUpdateInternalUse_withOptimisticStrategy_shouldNotLockAccount() {
+
+        // Given
+        lockingProperties.setStrategy(AccountLockingProperties.Strategy.OPTIMISTIC);
+        when(accountRepository.findById(1)).thenReturn(Optional.of(account));
+
+        // When
+        Account result = accountService.findAccountForBalanceUpdateInternalUse(1);
+
+        // Then
+        assertEquals(account.getId(), result.getId());
+        verify(accountRepository, never()).findByIdForUpdate(anyInt());
+    }
+
     @Test
     void createAccount_whenValidData_shouldCreateAccount() {
 
@@ -112,6 +181,8 @@ class AccountServiceTest {
         verify(accountRepository, times(1)).existsByNameAndUser_Id("Nouveau Compte", 1);
         verify(accountMapper, times(1)).toEntityFromCreateDTO(accountCreateDTO);
         verify(accountRepository, times(1)).save(account);
+        verify(entityCacheService, times(1)).evictUserAccounts(1);
+        verify(entityCacheService, times(1)).evictUserResponse(1);
     }
 
     @Test
@@ -148,21 +219,101 @@ class AccountServiceTest {
         // Then
         verify(accountRepository, times(1)).findById(1);
         verify(accountRepository, times(1)).delete(account);
+        verify(entityCacheService, times(1)).evictAccount(1);
+        verify(entityCacheService, times(1)).evictUserAccounts(1);
+        verify(entityCacheService, times(1)).evictUserResponse(1);
     }
 
     @Test
     void updateBalanceAccount_whenAccountExists_shouldUpdateBalance() {
 
         // Given
-        when(accountRepository.findById(anyInt())).thenReturn(Optional.of(account));
+        when(accountRepository.creditBalance(1, BigDecimal.valueOf(50))).thenReturn(1);
+        when(accountRepository.findUserIdById(1)).thenReturn(Optional.of(1));
+        when(entityManager.getReference(Account.class, 1)).thenReturn(account);
 
         // When
         accountService.updateBalanceAccount(balanceUpdateDTO);
 
         // Then
-        assertEquals(new BigDecimal("150"), account.getBalance());
-        verify(accountRepository, times(1)).findById(1);
-        verify(accountRepository, times(1)).save(account);
+        verify(accountRepository, times(1)).creditBalance(1, BigDecimal.valueOf(50));
+        verify(accountRepository, never()).findById(anyInt());
+        verify(accountRepository, never()).save(any(Account.class));
+        verify(entityManager, times(1)).refresh(account);
+        verify(ledgerService, times(1)).recordDeposit(1, BigDecimal.valueOf(50));
+        verify(entityCacheService, times(1)).evictAccount(1);
+        verify(entityCacheService, times(1)).evictUserResponse(1);
+        verify(paymentMetrics, times(1)).depositCompleted(BigDecimal.valueOf(50));
+    }
+
+    @Test
+    void updateBalanceAccount_whenAccountDoesNotExist_shouldThrowException() {
+
+        // Given
+        when(accountRepository.creditBalance(1, BigDecimal.valueOf(50))).thenReturn(0);
+
+        // When
+        ResourceNotFoundException exception = assertThrows(
+                ResourceNotFoundException.class,
+                () -> accountService.updateBalanceAccount(balanceUpdateDTO)
+        );
+
+        // Then
+        assertEquals("Compte non trouvé.", exception.getMessage());
+        verifyNoInteractions(ledgerService);
+    }
+
+    @Test
+    void debitBalanceAccount_whenBalanceIsSufficient_shouldDebitBalance() {
+
+        // Given
+        when(accountRepository.debitBalance(1, BigDecimal.valueOf(50))).thenReturn(1);
+        when(accountRepository.findUserIdById(1)).thenReturn(Optional.of(1));
+        when(entityManager.getReference(Account.class, 1)).thenReturn(account);
+
+        // When
+        accountService.debitBalanceAccount(balanceUpdateDTO);
+
+        // Then
+        verify(accountRepository, times(1)).debitBalance(1, BigDecimal.valueOf(50));
+        verify(accountRepository, never()).existsById(anyInt());
+        verify(entityManager, times(1)).refresh(account);
+        verify(ledgerService, times(1)).recordWithdrawal(1, BigDecimal.valueOf(50));
+        verify(entityCacheService, times(1)).evictAccount(1);
+        verify(entityCacheService, times(1)).evictUserResponse(1);
+        verify(paymentMetrics, times(1)).withdrawalCompleted(BigDecimal.valueOf(50));
+    }
+
+    @Test
+    void debitBalanceAccount_whenBalanceIsInsufficient_shouldThrowException() {
+
+        // Given
+        when(accountRepository.debitBalance(1, BigDecimal.valueOf(50))).thenReturn(0);
+        when(accountRepository.existsById(1)).thenReturn(true);
+
+        // When
+        InsufficientBalanceException exception = assertThrows(
+                InsufficientBalanceException.class,
+                () -> accountService.debitBalanceAccount(balanceUpdateDTO)
+        );
+
+        // Then
+        assertEquals("Solde insuffisant. Veuillez alimenter votre compte.", exception.getMessage());
+        verifyNoInteractions(ledgerService);
+        verify(paymentMetrics, times(1)).balanceCheckFailed("withdrawal");
+        verify(paymentMetrics, never()).withdrawalCompleted(any());
+    }
+
+    @Test
+    void debitBalanceAccount_whenAccountDoesNotExist_shouldThrowException() {
+
+        // Given
+        when(accountRepository.debitBalance(1, BigDecimal.valueOf(50))).thenReturn(0);
+        when(accountRepository.existsById(1)).thenReturn(false);
+
+        // When / Then
+        assertThrows(ResourceNotFoundException.class, () -> accountService.debitBalanceAccount(balanceUpdateDTO));
+        verifyNoInteractions(ledgerService);
     }
 
     @Test
@@ -183,15 +334,17 @@ class AccountServiceTest {
         contacts.add(contact);
 
             // accounts
+        User contactUser = new User();
+        contactUser.setId(2);
+
         Account userAccount = new Account();
         userAccount.setId(1);
         userAccount.setName("Compte Personnel");
+        userAccount.setUser(this.user);
         Account contactAccount = new Account();
         contactAccount.setId(2);
         contactAccount.setName("Compte Contact");
-
-        Set<Account> contactAccounts = new HashSet<>();
-        contactAccounts.add(contactAccount);
+        contactAccount.setUser(contactUser);
 
             // accounts DTOs
         AccountResponseDTO userAccountDTO = new AccountResponseDTO();
@@ -203,8 +356,7 @@ class AccountServiceTest {
 
         when(userService.findByUserId(anyInt())).thenReturn(user);
 
-        when(accountRepository.findByUserId(1)).thenReturn(Set.of(userAccount));
-        when(accountRepository.findByUserId(2)).thenReturn(contactAccounts);
+        when(accountRepository.findByUserIdIn(List.of(1, 2))).thenReturn(List.of(userAccount, contactAccount));
 
         when(accountMapper.toAccountResponseDTO(userAccount)).thenReturn(userAccountDTO);
         when(accountMapper.toAccountResponseDTO(contactAccount)).thenReturn(contactAccountDTO);
@@ -217,11 +369,13 @@ class AccountServiceTest {
         assertEquals(2, result.size());
 
         assertEquals("user", result.get(0).getOwnerName());
+        assertEquals(List.of(userAccountDTO), result.get(0).getAccounts());
         assertEquals("contactUser", result.get(1).getOwnerName());
+        assertEquals(List.of(contactAccountDTO), result.get(1).getAccounts());
 
         verify(userService, times(1)).findByUserId(1);
-        verify(accountRepository, times(1)).findByUserId(1);
-        verify(accountRepository, times(1)).findByUserId(2);
+        verify(accountRepository, times(1)).findByUserIdIn(List.of(1, 2));
+        verify(accountRepository, never()).findByUserId(anyInt());
 
     }
 
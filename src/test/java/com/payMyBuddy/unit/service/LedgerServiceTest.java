@@ -0,0 +1,179 @@
+package com.payMyBuddy.unit.service;
+
+import com.payMyBuddy.dto.account.BalanceReconciliationDTO;
+import com.payMyBuddy.exception.ResourceNotFoundException;
+import com.payMyBuddy.model.Account;
+import com.payMyBuddy.model.BalanceSnapshot;
+import com.payMyBuddy.model.LedgerEntry;
+import com.payMyBuddy.model.LedgerEntryType;
+import com.payMyBuddy.model.Transaction;
+import com.payMyBuddy.repository.AccountRepository;
+import com.payMyBuddy.repository.BalanceSnapshotRepository;
+import com.payMyBuddy.repository.LedgerEntryRepository;
+import com.payMyBuddy.service.LedgerService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LedgerServiceTest {
+
+    @Mock
+    private LedgerEntryRepository ledgerEntryRepository;
+    @Mock
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+    @Mock
+    private AccountRepository accountRepository;
+
+    @InjectMocks
+    private LedgerService ledgerService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordTransfers_shouldAppendDebitAndCreditWithNextAccountVersion() {
+
+        // Given
+        Account senderAccount = new Account();
+        senderAccount.setId(1);
+        senderAccount.setVersion(4L);
+
+        Account receiverAccount = new Account();
+        receiverAccount.setId(2);
+        receiverAccount.setVersion(9L);
+
+        Transaction transaction = new Transaction();
+        transaction.setId(10);
+        transaction.setSenderAccount(senderAccount);
+        transaction.setReceiverAccount(receiverAccount);
+        transaction.setAmount(BigDecimal.valueOf(50));
+        transaction.setCreatedAt(Instant.now());
+
+        // When
+        ledgerService.recordTransfers(List.of(transaction));
+
+        // Then
+        ArgumentCaptor<List<LedgerEntry>> captor = ArgumentCaptor.forClass(List.class);
+        verify(ledgerEntryRepository, times(1)).saveAll(captor.capture());
+
+        List<LedgerEntry> entries = captor.getValue();
+        assertEquals(2, entries.size());
+
+        assertEquals(1, entries.get(0).getAccountId());
+        assertEquals(LedgerEntryType.TRANSFER_DEBIT, entries.get(0).getType());
+        assertEquals(BigDecimal.valueOf(-50), entries.get(0).getAmount());
+        assertEquals(5L, entries.get(0).getAccountVersion());
+        assertEquals(10, entries.get(0).getTransactionId());
+
+        assertEquals(2, entries.get(1).getAccountId());
+        assertEquals(LedgerEntryType.TRANSFER_CREDIT, entries.get(1).getType());
+        assertEquals(BigDecimal.valueOf(50), entries.get(1).getAmount());
+        assertEquals(10L, entries.get(1).getAccountVersion());
+    }
+
+    @Test
+    void recordDeposit_shouldUseTheVersionWrittenByTheUpdate() {
+
+        // Given
+        when(accountRepository.findVersionById(1)).thenReturn(Optional.of(3L));
+
+        // When
+        ledgerService.recordDeposit(1, BigDecimal.valueOf(20));
+
+        // Then
+        ArgumentCaptor<LedgerEntry> captor = ArgumentCaptor.forClass(LedgerEntry.class);
+        verify(ledgerEntryRepository, times(1)).save(captor.capture());
+
+        assertEquals(LedgerEntryType.DEPOSIT, captor.getValue().getType());
+        assertEquals(BigDecimal.valueOf(20), captor.getValue().getAmount());
+        assertEquals(3L, captor.getValue().getAccountVersion());
+    }
+
+    @Test
+    void findBalanceAt_shouldAddEntriesSinceTheSnapshot() {
+
+        // Given
+        Instant at = Instant.now();
+        BalanceSnapshot snapshot = new BalanceSnapshot(1L, 1, BigDecimal.valueOf(100), 6L, at.minusSeconds(60));
+
+        when(balanceSnapshotRepository.findFirstByAccountIdAndCreatedAtLessThanEqualOrderByAccountVersionDesc(1, at))
+                .thenReturn(Optional.of(snapshot));
+        when(ledgerEntryRepository.sumAmountAfterVersionUntil(1, 6L, at)).thenReturn(BigDecimal.valueOf(-30));
+
+        // When
+        BigDecimal balance = ledgerService.findBalanceAt(1, at);
+
+        // Then
+        assertEquals(BigDecimal.valueOf(70), balance);
+    }
+
+    @Test
+    void reconcileAccount_whenBalanceMatches_shouldTakeNewSnapshot() {
+
+        // Given
+        Account account = new Account();
+        account.setId(1);
+        account.setBalance(BigDecimal.valueOf(70));
+        account.setVersion(8L);
+
+        BalanceSnapshot snapshot = new BalanceSnapshot(1L, 1, BigDecimal.valueOf(100), 6L, Instant.now());
+
+        when(accountRepository.findById(1)).thenReturn(Optional.of(account));
+        when(balanceSnapshotRepository.findFirstByAccountIdOrderByAccountVersionDesc(1)).thenReturn(Optional.of(snapshot));
+        when(ledgerEntryRepository.sumAmountBetweenVersions(1, 6L, 8L)).thenReturn(BigDecimal.valueOf(-30));
+
+        // When
+        BalanceReconciliationDTO reconciliation = ledgerService.reconcileAccount(1);
+
+        // Then
+        assertTrue(reconciliation.isConsistent());
+
+        ArgumentCaptor<BalanceSnapshot> captor = ArgumentCaptor.forClass(BalanceSnapshot.class);
+        verify(balanceSnapshotRepository, times(1)).save(captor.capture());
+        assertEquals(BigDecimal.valueOf(70), captor.getValue().getBalance());
+        assertEquals(8L, captor.getValue().getAccountVersion());
+    }
+
+    @Test
+    void reconcileAccount_whenBalanceDiffers_shouldReportMismatchWithoutSnapshot() {
+
+        // Given
+        Account account = new Account();
+        account.setId(1);
+        account.setBalance(BigDecimal.valueOf(500));
+        account.setVersion(2L);
+
+        when(accountRepository.findById(1)).thenReturn(Optional.of(account));
+        when(balanceSnapshotRepository.findFirstByAccountIdOrderByAccountVersionDesc(1)).thenReturn(Optional.empty());
+        when(ledgerEntryRepository.sumAmountBetweenVersions(1, 0L, 2L)).thenReturn(BigDecimal.valueOf(100));
+
+        // When
+        BalanceReconciliationDTO reconciliation = ledgerService.reconcileAccount(1);
+
+        // Then
+        assertFalse(reconciliation.isConsistent());
+        assertEquals(BigDecimal.valueOf(100), reconciliation.getLedgerBalance());
+        verify(balanceSnapshotRepository, never()).save(any());
+    }
+
+    @Test
+    void reconcileAccount_whenAccountDoesNotExist_shouldThrowException() {
+
+        // Given
+        when(accountRepository.findById(1)).thenReturn(Optional.empty());
+
+        // When / Then
+        assertThrows(ResourceNotFoundException.class, () -> ledgerService.reconcileAccount(1));
+    }
+}
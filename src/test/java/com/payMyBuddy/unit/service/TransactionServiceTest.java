@@ -1,25 +1,36 @@
 package com.payMyBuddy.unit.service;
 
 import com.payMyBuddy.dto.transaction.TransactionCreateDTO;
+import com.payMyBuddy.dto.transaction.TransactionPageResponseDTO;
 import com.payMyBuddy.dto.transaction.TransactionResponseDTO;
+import com.payMyBuddy.dto.transaction.TransactionResultDTO;
 import com.payMyBuddy.exception.InsufficientBalanceException;
 import com.payMyBuddy.exception.SelfSendingAmountException;
 import com.payMyBuddy.mapper.TransactionMapper;
+import com.payMyBuddy.metrics.PaymentMetrics;
 import com.payMyBuddy.model.Account;
 import com.payMyBuddy.model.Transaction;
 import com.payMyBuddy.model.User;
 import com.payMyBuddy.repository.TransactionRepository;
 import com.payMyBuddy.service.AccountService;
+import com.payMyBuddy.service.EntityCacheService;
+import com.payMyBuddy.service.LedgerService;
 import com.payMyBuddy.service.TransactionService;
+import com.payMyBuddy.service.TransferOutboxService;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -34,6 +45,16 @@ class TransactionServiceTest {
     private TransactionMapper transactionMapper;
     @Mock
     private AccountService accountService;
+    @Mock
+    private Validator validator;
+    @Mock
+    private LedgerService ledgerService;
+    @Mock
+    private TransferOutboxService transferOutboxService;
+    @Mock
+    private EntityCacheService entityCacheService;
+    @Mock
+    private PaymentMetrics paymentMetrics;
 
     @InjectMocks
     private TransactionService transactionService;
@@ -44,24 +65,17 @@ class TransactionServiceTest {
 
         // Given
         Integer currentUserId = 1;
+        List<Integer> accountIds = List.of(10, 11);
+        when(accountService.findAccountIdsInternalUse(currentUserId)).thenReturn(accountIds);
         int limit = 5;
 
-        Transaction transaction1 = new Transaction();
-        transaction1.setCreatedAt(Instant.now().minusSeconds(60));
-        Transaction transaction2 = new Transaction();
-        transaction2.setCreatedAt(Instant.now());
-
-        List<Transaction> transactions = List.of(transaction1, transaction2);
-
         TransactionResponseDTO transactionResponseDTO1 = new TransactionResponseDTO();
-        transactionResponseDTO1.setCreatedAt(transaction1.getCreatedAt());
+        transactionResponseDTO1.setCreatedAt(Instant.now());
         TransactionResponseDTO transactionResponseDTO2 = new TransactionResponseDTO();
-        transactionResponseDTO2.setCreatedAt(transaction2.getCreatedAt());
+        transactionResponseDTO2.setCreatedAt(Instant.now().minusSeconds(60));
 
-        when(transactionRepository.findBySenderAccount_User_IdOrReceiverAccount_User_Id(currentUserId, currentUserId))
-                .thenReturn(transactions);
-        when(transactionMapper.toResponseDTO(transaction1)).thenReturn(transactionResponseDTO1);
-        when(transactionMapper.toResponseDTO(transaction2)).thenReturn(transactionResponseDTO2);
+        when(transactionRepository.findLatestForUser(accountIds, Limit.of(limit)))
+                .thenReturn(List.of(transactionResponseDTO1, transactionResponseDTO2));
 
         // When
         List<TransactionResponseDTO> result = transactionService.findTransactionsForCurrentUser(currentUserId, limit);
@@ -72,7 +86,102 @@ class TransactionServiceTest {
         assertTrue(result.get(0).getCreatedAt().isAfter(result.get(1).getCreatedAt()));
 
         verify(transactionRepository, times(1))
-                .findBySenderAccount_User_IdOrReceiverAccount_User_Id(currentUserId, currentUserId);
+                .findLatestForUser(accountIds, Limit.of(limit));
+        verifyNoInteractions(transactionMapper);
+    }
+
+    @Test
+    void findTransactionsPageForCurrentUser_whenMoreRowsThanPageSize_shouldReturnNextCursor() {
+
+        // Given
+        Integer currentUserId = 1;
+        List<Integer> accountIds = List.of(10, 11);
+        when(accountService.findAccountIdsInternalUse(currentUserId)).thenReturn(accountIds);
+        Instant now = Instant.now();
+
+        TransactionResponseDTO transaction1 = new TransactionResponseDTO();
+        transaction1.setId(3);
+        transaction1.setCreatedAt(now);
+        TransactionResponseDTO transaction2 = new TransactionResponseDTO();
+        transaction2.setId(2);
+        transaction2.setCreatedAt(now.minusSeconds(60));
+        TransactionResponseDTO transaction3 = new TransactionResponseDTO();
+        transaction3.setId(1);
+        transaction3.setCreatedAt(now.minusSeconds(120));
+
+        when(transactionRepository.findLatestForUser(accountIds, Limit.of(3)))
+                .thenReturn(List.of(transaction1, transaction2, transaction3));
+
+        // When
+        TransactionPageResponseDTO result = transactionService.findTransactionsPageForCurrentUser(currentUserId, null, 2);
+
+        // Then
+        assertEquals(2, result.getTransactions().size());
+        assertTrue(result.hasNext());
+        assertEquals(transaction2.getCreatedAt() + ",2", result.getNextCursor());
+    }
+
+    @Test
+    void findTransactionsPageForCurrentUser_withCursor_shouldSeekAfterCursor() {
+
+        // Given
+        Integer currentUserId = 1;
+        List<Integer> accountIds = List.of(10, 11);
+        when(accountService.findAccountIdsInternalUse(currentUserId)).thenReturn(accountIds);
+        Instant createdAt = Instant.parse("2025-01-01T10:00:00Z");
+
+        TransactionResponseDTO transaction = new TransactionResponseDTO();
+        transaction.setId(1);
+        transaction.setCreatedAt(createdAt.minusSeconds(60));
+
+        when(transactionRepository.findForUserBefore(accountIds, createdAt, 2, Limit.of(3)))
+                .thenReturn(List.of(transaction));
+
+        // When
+        TransactionPageResponseDTO result = transactionService.findTransactionsPageForCurrentUser(
+                currentUserId, createdAt + ",2", 2
+        );
+
+        // Then
+        assertEquals(1, result.getTransactions().size());
+        assertFalse(result.hasNext());
+        verify(transactionRepository, never()).findLatestForUser(anyCollection(), any(Limit.class));
+    }
+
+    @Test
+    void findTransactionsPageForCurrentUser_withMalformedCursor_shouldReturnFirstPage() {
+
+        // Given
+        Integer currentUserId = 1;
+        List<Integer> accountIds = List.of(10, 11);
+        when(accountService.findAccountIdsInternalUse(currentUserId)).thenReturn(accountIds);
+
+        when(transactionRepository.findLatestForUser(accountIds, Limit.of(3))).thenReturn(List.of());
+
+        // When
+        TransactionPageResponseDTO result = transactionService.findTransactionsPageForCurrentUser(
+                currentUserId, "not-a-cursor", 2
+        );
+
+        // Then
+        assertTrue(result.getTransactions().isEmpty());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void findTransactionsPageForCurrentUser_whenUserHasNoAccount_shouldNotQueryTheHistory() {
+
+        // Given
+        Integer currentUserId = 1;
+        when(accountService.findAccountIdsInternalUse(currentUserId)).thenReturn(List.of());
+
+        // When
+        TransactionPageResponseDTO result = transactionService.findTransactionsPageForCurrentUser(currentUserId, null, 2);
+
+        // Then
+        assertTrue(result.getTransactions().isEmpty());
+        assertNull(result.getNextCursor());
+        verifyNoInteractions(transactionRepository);
     }
 
     @Test
@@ -103,8 +212,8 @@ class TransactionServiceTest {
         Transaction transaction = new Transaction();
         transaction.setAmount(transactionCreateDTO.getAmount());
 
-        when(accountService.findAccountByIdInternalUse(1)).thenReturn(senderAccount);
-        when(accountService.findAccountByIdInternalUse(2)).thenReturn(receiverAccount);
+        when(accountService.findAccountForBalanceUpdateInternalUse(1)).thenReturn(senderAccount);
+        when(accountService.findAccountForBalanceUpdateInternalUse(2)).thenReturn(receiverAccount);
         when(transactionMapper.toEntityFromCreateDTO(transactionCreateDTO)).thenReturn(transaction);
 
         // When
@@ -117,6 +226,49 @@ class TransactionServiceTest {
         verify(transactionRepository, times(1)).save(transaction);
         verify(accountService, times(1)).saveAccount(senderAccount);
         verify(accountService, times(1)).saveAccount(receiverAccount);
+        verify(ledgerService, times(1)).recordTransfers(List.of(transaction));
+        verify(transferOutboxService, times(1)).recordTransfers(List.of(transaction));
+    }
+
+    @Test
+    void createTransaction_whenSenderIdIsHigher_shouldLockAccountsInAscendingIdOrder() {
+
+        // Given
+        TransactionCreateDTO transactionCreateDTO = new TransactionCreateDTO();
+        transactionCreateDTO.setSenderAccountId(2);
+        transactionCreateDTO.setReceiverAccountId(1);
+        transactionCreateDTO.setAmount(BigDecimal.valueOf(50));
+
+        User user = new User();
+        user.setId(1);
+
+        Account senderAccount = new Account();
+        senderAccount.setId(2);
+        senderAccount.setUser(user);
+        senderAccount.setBalance(BigDecimal.valueOf(200));
+
+        Account receiverAccount = new Account();
+        receiverAccount.setId(1);
+        receiverAccount.setUser(user);
+        receiverAccount.setBalance(BigDecimal.ZERO);
+
+        Transaction transaction = new Transaction();
+        transaction.setAmount(transactionCreateDTO.getAmount());
+
+        when(accountService.findAccountForBalanceUpdateInternalUse(2)).thenReturn(senderAccount);
+        when(accountService.findAccountForBalanceUpdateInternalUse(1)).thenReturn(receiverAccount);
+        when(transactionMapper.toEntityFromCreateDTO(transactionCreateDTO)).thenReturn(transaction);
+
+        // When
+        transactionService.createTransaction(transactionCreateDTO);
+
+        // Then
+        InOrder inOrder = inOrder(accountService);
+        inOrder.verify(accountService).findAccountForBalanceUpdateInternalUse(1);
+        inOrder.verify(accountService).findAccountForBalanceUpdateInternalUse(2);
+
+        assertEquals(BigDecimal.valueOf(150), senderAccount.getBalance());
+        assertEquals(BigDecimal.valueOf(50), receiverAccount.getBalance());
     }
 
     @Test
@@ -139,7 +291,7 @@ class TransactionServiceTest {
         Transaction transaction = new Transaction();
         transaction.setAmount(transactionCreateDTO.getAmount());
 
-        when(accountService.findAccountByIdInternalUse(1)).thenReturn(senderAccount);
+        when(accountService.findAccountForBalanceUpdateInternalUse(1)).thenReturn(senderAccount);
 
         // When
         SelfSendingAmountException exception = assertThrows(
@@ -172,8 +324,8 @@ class TransactionServiceTest {
         Transaction transaction = new Transaction();
         transaction.setAmount(transactionCreateDTO.getAmount());
 
-        when(accountService.findAccountByIdInternalUse(1)).thenReturn(senderAccount);
-        when(accountService.findAccountByIdInternalUse(2)).thenReturn(receiverAccount);
+        when(accountService.findAccountForBalanceUpdateInternalUse(1)).thenReturn(senderAccount);
+        when(accountService.findAccountForBalanceUpdateInternalUse(2)).thenReturn(receiverAccount);
         when(transactionMapper.toEntityFromCreateDTO(transactionCreateDTO)).thenReturn(transaction);
 
         // When
@@ -185,8 +337,81 @@ class TransactionServiceTest {
         // Then
         assertEquals("Solde insuffisant. Veuillez alimenter votre compte.", exception.getMessage());
         verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(paymentMetrics, times(1)).balanceCheckFailed("transfer");
+        verify(paymentMetrics, never()).transfersCompleted(any());
     }
 
+    @Test
+    void createTransactions_whenSomeTransfersAreInvalid_shouldApplyOnlyTheValidOnes() {
+
+        // Given
+        User user = new User();
+        user.setId(1);
+
+        Account account1 = new Account();
+        account1.setId(1);
+        account1.setUser(user);
+        account1.setBalance(BigDecimal.valueOf(100));
 
+        Account account2 = new Account();
+        account2.setId(2);
+        account2.setUser(user);
+        account2.setBalance(BigDecimal.valueOf(0));
 
-}
\ No newline at end of file
+        User otherUser = new User();
+        otherUser.setId(2);
+
+        Account foreignAccount = new Account();
+        foreignAccount.setId(3);
+        foreignAccount.setUser(otherUser);
+        foreignAccount.setBalance(BigDecimal.valueOf(100));
+
+        TransactionCreateDTO valid = new TransactionCreateDTO(1, 2, BigDecimal.valueOf(80), "Valid");
+        TransactionCreateDTO overdraft = new TransactionCreateDTO(1, 2, BigDecimal.valueOf(30), "Overdraft");
+        TransactionCreateDTO sameAccount = new TransactionCreateDTO(2, 2, BigDecimal.valueOf(10), "Same account");
+        TransactionCreateDTO unknownAccount = new TransactionCreateDTO(2, 99, BigDecimal.valueOf(10), "Unknown");
+        TransactionCreateDTO foreignSender = new TransactionCreateDTO(3, 1, BigDecimal.valueOf(10), "Foreign sender");
+
+        Transaction transaction = new Transaction();
+        transaction.setAmount(valid.getAmount());
+
+        when(accountService.findAccountsForBalanceUpdateInternalUse(Set.of(1, 2, 3, 99)))
+                .thenReturn(Map.of(1, account1, 2, account2, 3, foreignAccount));
+        when(validator.validate(any(TransactionCreateDTO.class))).thenReturn(Set.of());
+        when(transactionMapper.toEntityFromCreateDTO(valid)).thenReturn(transaction);
+        when(transactionRepository.saveAll(List.of(transaction))).thenAnswer(invocation -> {
+            transaction.setId(42);
+            return List.of(transaction);
+        });
+
+        // When
+        List<TransactionResultDTO> results = transactionService.createTransactions(
+                1, List.of(valid, overdraft, sameAccount, unknownAccount, foreignSender)
+        );
+
+        // Then
+        assertEquals(5, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(42, results.get(0).getTransactionId());
+        assertEquals("Solde insuffisant. Veuillez alimenter votre compte.", results.get(1).getMessage());
+        assertEquals("Virement interdit sur le même compte.", results.get(2).getMessage());
+        assertEquals("Compte non trouvé.", results.get(3).getMessage());
+        assertFalse(results.get(4).isSuccess());
+        assertEquals("Ce compte expéditeur ne vous appartient pas.", results.get(4).getMessage());
+        assertEquals(BigDecimal.valueOf(100), foreignAccount.getBalance());
+
+        assertEquals(BigDecimal.valueOf(20), account1.getBalance());
+        assertEquals(BigDecimal.valueOf(80), account2.getBalance());
+        assertEquals(account1, transaction.getSenderAccount());
+        assertEquals(account2, transaction.getReceiverAccount());
+
+        verify(accountService, times(1)).findAccountsForBalanceUpdateInternalUse(anyCollection());
+        verify(transactionRepository, times(1)).saveAll(List.of(transaction));
+        verify(transactionRepository, never()).save(any());
+        verify(ledgerService, times(1)).recordTransfers(List.of(transaction));
+        verify(transferOutboxService, times(1)).recordTransfers(List.of(transaction));
+        verify(entityCacheService, times(1)).evictUserResponse(1);
+        verify(paymentMetrics, times(1)).transfersCompleted(List.of(transaction));
+        verify(paymentMetrics, times(1)).balanceCheckFailed("bulk_transfer");
+    }
+}
@@ -11,12 +11,15 @@ import com.payMyBuddy.mapper.UserMapper;
 import com.payMyBuddy.model.User;
 import com.payMyBuddy.repository.UserRepository;
 import com.payMyBuddy.service.AccountService;
+import com.payMyBuddy.service.EntityCacheService;
 import com.payMyBuddy.service.UserService;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.HashSet;
@@ -35,8 +38,12 @@ class UserServiceTest {
     private UserRepository userRepository;
     @Mock
     private UserMapper userMapper;
+    @Spy
+    private PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
     @Mock
     private AccountService accountService;
+    @Mock
+    private EntityCacheService entityCacheService;
     @InjectMocks
     private UserService userService;
 
@@ -67,6 +74,7 @@ class UserServiceTest {
         verify(userRepository, times(1)).save(any(User.class));
 
         verify(accountService, times(1)).createAccount(any(AccountCreateDTO.class), anyInt());
+        verify(entityCacheService, times(1)).evictUserDetails("utilisateur@gmail.com");
     }
 
     @Test
@@ -99,6 +107,7 @@ class UserServiceTest {
         passwordUpdateDTO.setNewPassword("newPassword");
 
         User user = new User();
+        user.setEmail("utilisateur@gmail.com");
         user.setPassword(new BCryptPasswordEncoder().encode("oldPassword"));
 
         when(userRepository.findById(anyInt())).thenReturn(Optional.of(user));
@@ -110,6 +119,8 @@ class UserServiceTest {
         // Then
         assertTrue(new BCryptPasswordEncoder().matches("newPassword", user.getPassword()));
         verify(userRepository, times(1)).save(any(User.class));
+        verify(entityCacheService, times(1)).evictUserResponse(1);
+        verify(entityCacheService, times(1)).evictUserDetails("utilisateur@gmail.com");
     }
 
     @Test
@@ -201,6 +212,10 @@ class UserServiceTest {
         assertTrue(user.getContacts().contains(contact));
         verify(userRepository, times(1)).save(user);
         verify(userRepository, times(1)).save(contact);
+        verify(entityCacheService, times(1)).evictUserContacts(1);
+        verify(entityCacheService, times(1)).evictUserContacts(2);
+        verify(entityCacheService, times(1)).evictUserResponse(1);
+        verify(entityCacheService, times(1)).evictUserResponse(2);
     }
 
     @Test
@@ -229,6 +244,10 @@ class UserServiceTest {
         assertFalse(contact.getContacts().contains(user));
         verify(userRepository, times(1)).save(user);
         verify(userRepository, times(1)).save(contact);
+        verify(entityCacheService, times(1)).evictUserContacts(1);
+        verify(entityCacheService, times(1)).evictUserContacts(2);
+        verify(entityCacheService, times(1)).evictUserResponse(1);
+        verify(entityCacheService, times(1)).evictUserResponse(2);
     }
 
 